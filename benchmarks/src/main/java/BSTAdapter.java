@@ -0,0 +1,76 @@
+import benchmarks.TreeAdapter;
+
+/**
+ * Exposes BST<Integer> to the benchmarks package.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class BSTAdapter implements TreeAdapter {
+
+    private final BST<Integer> tree = new BST<>();
+
+    BST<Integer> tree() {
+        return tree;
+    }
+
+    @Override
+    public void add(Integer key) {
+        tree.add(key);
+    }
+
+    @Override
+    public Object remove(Integer key) {
+        return tree.remove(key);
+    }
+
+    @Override
+    public Object get(Integer key) {
+        return tree.get(key);
+    }
+
+    @Override
+    public boolean contains(Integer key) {
+        return tree.contains(key);
+    }
+
+    @Override
+    public Object preorder() {
+        return tree.preorder();
+    }
+
+    @Override
+    public Object inorder() {
+        return tree.inorder();
+    }
+
+    @Override
+    public Object postorder() {
+        return tree.postorder();
+    }
+
+    @Override
+    public Object levelorder() {
+        return tree.levelorder();
+    }
+
+    @Override
+    public int height() {
+        return tree.height();
+    }
+
+    @Override
+    public Object kLargest(int k) {
+        return tree.kLargest(k);
+    }
+
+    @Override
+    public void clear() {
+        tree.clear();
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+}
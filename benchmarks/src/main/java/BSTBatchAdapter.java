@@ -0,0 +1,21 @@
+import java.util.List;
+
+/**
+ * BSTAdapter whose batch operations go through BST.addAll and
+ * BST.removeAll instead of one add or remove per key.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class BSTBatchAdapter extends BSTAdapter {
+
+    @Override
+    public int addAll(List<Integer> keys) {
+        return tree().addAll(keys);
+    }
+
+    @Override
+    public int removeAll(List<Integer> keys) {
+        return tree().removeAll(keys);
+    }
+}
@@ -0,0 +1,74 @@
+import benchmarks.TreeAdapter;
+
+/**
+ * Exposes ConcurrentBST<Integer> to the benchmarks package. ConcurrentBST
+ * only offers point operations and an in-order traversal; the rest throw
+ * UnsupportedOperationException.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class ConcurrentBSTAdapter implements TreeAdapter {
+
+    private final ConcurrentBST<Integer> tree = new ConcurrentBST<>();
+
+    @Override
+    public void add(Integer key) {
+        tree.add(key);
+    }
+
+    @Override
+    public Object remove(Integer key) {
+        return tree.remove(key);
+    }
+
+    @Override
+    public Object get(Integer key) {
+        return tree.get(key);
+    }
+
+    @Override
+    public boolean contains(Integer key) {
+        return tree.contains(key);
+    }
+
+    @Override
+    public Object preorder() {
+        throw new UnsupportedOperationException("ConcurrentBST only traverses in order");
+    }
+
+    @Override
+    public Object inorder() {
+        return tree.inorder();
+    }
+
+    @Override
+    public Object postorder() {
+        throw new UnsupportedOperationException("ConcurrentBST only traverses in order");
+    }
+
+    @Override
+    public Object levelorder() {
+        throw new UnsupportedOperationException("ConcurrentBST only traverses in order");
+    }
+
+    @Override
+    public int height() {
+        throw new UnsupportedOperationException("ConcurrentBST does not expose its height");
+    }
+
+    @Override
+    public Object kLargest(int k) {
+        throw new UnsupportedOperationException("ConcurrentBST does not support kLargest");
+    }
+
+    @Override
+    public void clear() {
+        tree.clear();
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+}
@@ -0,0 +1,87 @@
+import benchmarks.TreeAdapter;
+
+/**
+ * Exposes FrozenBST<Integer> to the benchmarks package. Keys are collected in
+ * a BST and frozen on the first read; after that the structure is read-only
+ * and add, remove and clear throw UnsupportedOperationException, so only the
+ * lookup benchmarks use it.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class FrozenBSTAdapter implements TreeAdapter {
+
+    private BST<Integer> builder = new BST<>();
+    private FrozenBST<Integer> tree;
+
+    private FrozenBST<Integer> frozen() {
+        if (tree == null) {
+            tree = builder.freeze();
+            builder = null;
+        }
+        return tree;
+    }
+
+    @Override
+    public void add(Integer key) {
+        if (builder == null) {
+            throw new UnsupportedOperationException("tree has been frozen");
+        }
+        builder.add(key);
+    }
+
+    @Override
+    public Object remove(Integer key) {
+        throw new UnsupportedOperationException("FrozenBST is read-only");
+    }
+
+    @Override
+    public Object get(Integer key) {
+        return frozen().get(key);
+    }
+
+    @Override
+    public boolean contains(Integer key) {
+        return frozen().contains(key);
+    }
+
+    @Override
+    public Object preorder() {
+        throw new UnsupportedOperationException("FrozenBST only traverses in order");
+    }
+
+    @Override
+    public Object inorder() {
+        return frozen().inorder();
+    }
+
+    @Override
+    public Object postorder() {
+        throw new UnsupportedOperationException("FrozenBST only traverses in order");
+    }
+
+    @Override
+    public Object levelorder() {
+        throw new UnsupportedOperationException("FrozenBST only traverses in order");
+    }
+
+    @Override
+    public int height() {
+        throw new UnsupportedOperationException("FrozenBST does not expose its height");
+    }
+
+    @Override
+    public Object kLargest(int k) {
+        return frozen().kLargest(k);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("FrozenBST is read-only");
+    }
+
+    @Override
+    public int size() {
+        return tree == null ? builder.size() : tree.size();
+    }
+}
@@ -0,0 +1,77 @@
+import benchmarks.TreeAdapter;
+
+/**
+ * Exposes IntBST to the benchmarks package. Keys are unboxed on the way in,
+ * which costs a field load, so the comparison with BST<Integer> measures the
+ * tree layouts rather than the adapters.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class IntBSTAdapter implements TreeAdapter {
+
+    private final IntBST tree = new IntBST();
+
+    @Override
+    public void add(Integer key) {
+        tree.add(key);
+    }
+
+    @Override
+    public Object remove(Integer key) {
+        return tree.remove(key);
+    }
+
+    @Override
+    public Object get(Integer key) {
+        if (!tree.contains(key)) {
+            throw new java.util.NoSuchElementException("cannot get data if data is not in BST");
+        }
+        return key;
+    }
+
+    @Override
+    public boolean contains(Integer key) {
+        return tree.contains(key);
+    }
+
+    @Override
+    public Object preorder() {
+        return tree.preorder();
+    }
+
+    @Override
+    public Object inorder() {
+        return tree.inorder();
+    }
+
+    @Override
+    public Object postorder() {
+        return tree.postorder();
+    }
+
+    @Override
+    public Object levelorder() {
+        return tree.levelorder();
+    }
+
+    @Override
+    public int height() {
+        return tree.height();
+    }
+
+    @Override
+    public Object kLargest(int k) {
+        return tree.kLargest(k);
+    }
+
+    @Override
+    public void clear() {
+        tree.clear();
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+}
@@ -0,0 +1,73 @@
+import benchmarks.TreeAdapter;
+
+/**
+ * A BST<Integer> behind one monitor, the coarse-grained baseline that
+ * ConcurrentBST is measured against.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class SynchronizedBSTAdapter implements TreeAdapter {
+
+    private final BST<Integer> tree = new BST<>();
+
+    @Override
+    public synchronized void add(Integer key) {
+        tree.add(key);
+    }
+
+    @Override
+    public synchronized Object remove(Integer key) {
+        return tree.remove(key);
+    }
+
+    @Override
+    public synchronized Object get(Integer key) {
+        return tree.get(key);
+    }
+
+    @Override
+    public synchronized boolean contains(Integer key) {
+        return tree.contains(key);
+    }
+
+    @Override
+    public synchronized Object preorder() {
+        return tree.preorder();
+    }
+
+    @Override
+    public synchronized Object inorder() {
+        return tree.inorder();
+    }
+
+    @Override
+    public synchronized Object postorder() {
+        return tree.postorder();
+    }
+
+    @Override
+    public synchronized Object levelorder() {
+        return tree.levelorder();
+    }
+
+    @Override
+    public synchronized int height() {
+        return tree.height();
+    }
+
+    @Override
+    public synchronized Object kLargest(int k) {
+        return tree.kLargest(k);
+    }
+
+    @Override
+    public synchronized void clear() {
+        tree.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return tree.size();
+    }
+}
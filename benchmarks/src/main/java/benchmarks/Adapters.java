@@ -0,0 +1,128 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+/**
+ * Creates the TreeAdapter for a tree name used in a benchmark parameter.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public final class Adapters {
+
+    private Adapters() {
+    }
+
+    /**
+     * Creates an empty tree of the given kind. "TreeSet" is the
+     * java.util.TreeSet baseline; any other name X loads the unnamed-package
+     * class XAdapter.
+     *
+     * @param tree the name of the tree
+     * @return an empty tree behind the adapter interface
+     */
+    public static TreeAdapter create(String tree) {
+        if ("TreeSet".equals(tree)) {
+            return new TreeSetAdapter();
+        }
+        try {
+            return (TreeAdapter) Class.forName(tree + "Adapter").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("no adapter for tree " + tree, e);
+        }
+    }
+
+    /**
+     * Creates a tree of the given kind holding the keys, added in order.
+     *
+     * @param tree the name of the tree
+     * @param keys the keys to add
+     * @return the filled tree
+     */
+    public static TreeAdapter create(String tree, Integer[] keys) {
+        TreeAdapter adapter = create(tree);
+        for (Integer key : keys) {
+            adapter.add(key);
+        }
+        return adapter;
+    }
+
+    /**
+     * java.util.TreeSet baseline. TreeSet only walks its data in order, so
+     * the pre-, post- and level-order baselines are the same full in-order
+     * copy, and as it does not expose its height that baseline is the bare
+     * adapter call.
+     */
+    private static final class TreeSetAdapter implements TreeAdapter {
+
+        private final TreeSet<Integer> set = new TreeSet<>();
+
+        @Override
+        public void add(Integer key) {
+            set.add(key);
+        }
+
+        @Override
+        public Object remove(Integer key) {
+            return set.remove(key) ? key : null;
+        }
+
+        @Override
+        public Object get(Integer key) {
+            return set.ceiling(key);
+        }
+
+        @Override
+        public boolean contains(Integer key) {
+            return set.contains(key);
+        }
+
+        @Override
+        public Object preorder() {
+            return new ArrayList<>(set);
+        }
+
+        @Override
+        public Object inorder() {
+            return new ArrayList<>(set);
+        }
+
+        @Override
+        public Object postorder() {
+            return new ArrayList<>(set);
+        }
+
+        @Override
+        public Object levelorder() {
+            return new ArrayList<>(set);
+        }
+
+        @Override
+        public int height() {
+            return 0;
+        }
+
+        @Override
+        public Object kLargest(int k) {
+            ArrayList<Integer> list = new ArrayList<>(k);
+            for (Integer key : set.descendingSet()) {
+                if (list.size() == k) {
+                    break;
+                }
+                list.add(key);
+            }
+            return list;
+        }
+
+        @Override
+        public void clear() {
+            set.clear();
+        }
+
+        @Override
+        public int size() {
+            return set.size();
+        }
+    }
+}
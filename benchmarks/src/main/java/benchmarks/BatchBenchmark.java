@@ -0,0 +1,76 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Applying a batch of keys to a tree of a million random keys, one add or
+ * remove per key ("BST") against BST.addAll and BST.removeAll
+ * ("BSTBatch"). Each invocation adds the batch, which is absent from the
+ * tree, and removes it again, so the tree is the same before every
+ * invocation. Dense batches are a run of neighbouring keys; sparse ones are
+ * spread over the whole key space.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    @Param({"BST", "BSTBatch"})
+    public String tree;
+
+    @Param({"10000", "100000"})
+    public int batchSize;
+
+    @Param({"true", "false"})
+    public boolean dense;
+
+    private TreeAdapter adapter;
+    private List<Integer> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Even keys go in the tree and odd keys in the batch, so no key of the batch is present.
+        Integer[] keys = KeyDistribution.RANDOM.insertionOrder(SIZE);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keys[i] * 2;
+        }
+        adapter = Adapters.create(tree, keys);
+        Random random = new Random(7);
+        Integer[] odd = new Integer[batchSize];
+        int start = random.nextInt(SIZE - batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            odd[i] = 2 * (dense ? start + i : random.nextInt(SIZE)) + 1;
+        }
+        batch = new ArrayList<>(Arrays.asList(odd));
+    }
+
+    @Benchmark
+    public int addThenRemove() {
+        return adapter.addAll(batch) + adapter.removeAll(batch);
+    }
+}
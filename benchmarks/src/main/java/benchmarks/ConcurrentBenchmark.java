@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ConcurrentBST against a BST behind a single monitor, under a read-mostly
+ * mix: in each group seven threads look keys up while one removes and
+ * re-adds them. Raise the reader count with -tg to match the machine.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentBenchmark {
+
+    @Param({"ConcurrentBST", "SynchronizedBST"})
+    public String tree;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private Integer[] keys;
+    private TreeAdapter adapter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = KeyDistribution.RANDOM.insertionOrder(size);
+        adapter = Adapters.create(tree, keys);
+    }
+
+    private Integer randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(7)
+    public boolean read() {
+        return adapter.contains(randomKey());
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public int write() {
+        Integer key = randomKey();
+        adapter.remove(key);
+        adapter.add(key);
+        return adapter.size();
+    }
+}
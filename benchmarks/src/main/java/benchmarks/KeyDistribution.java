@@ -0,0 +1,92 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * How the benchmark keys are ordered when they are inserted, and how the
+ * lookup keys are drawn from them.
+ *
+ * The keys are always 0 to n - 1. SORTED, REVERSE and ZIGZAG insert them in
+ * an order that turns an unbalanced BST into a path of depth n; RANDOM and
+ * ZIPF insert them shuffled. Lookups are uniform over the keys, except for
+ * ZIPF, whose lookups follow a Zipf(1) law over a random ranking of the keys
+ * so that a few keys take most of the traffic.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public enum KeyDistribution {
+    RANDOM, SORTED, REVERSE, ZIGZAG, ZIPF;
+
+    private static final long SEED = 42;
+
+    /**
+     * Returns the keys 0 to n - 1 in insertion order.
+     *
+     * @param n the number of keys
+     * @return the boxed keys, boxed once so that benchmarks do not allocate
+     */
+    public Integer[] insertionOrder(int n) {
+        Integer[] keys = new Integer[n];
+        switch (this) {
+            case SORTED:
+                for (int i = 0; i < n; i++) {
+                    keys[i] = i;
+                }
+                break;
+            case REVERSE:
+                for (int i = 0; i < n; i++) {
+                    keys[i] = n - 1 - i;
+                }
+                break;
+            case ZIGZAG:
+                // 0, n - 1, 1, n - 2, ...: every node is the child on the other side.
+                for (int i = 0, low = 0, high = n - 1; i < n; i++) {
+                    keys[i] = i % 2 == 0 ? low++ : high--;
+                }
+                break;
+            default:
+                for (int i = 0; i < n; i++) {
+                    keys[i] = i;
+                }
+                shuffle(keys, new Random(SEED));
+                break;
+        }
+        return keys;
+    }
+
+    /**
+     * Returns lookup keys drawn from the given keys.
+     *
+     * @param keys  the keys in the tree
+     * @param count the number of lookups, a power of two
+     * @return the lookup keys, sharing the boxes of keys
+     */
+    public Integer[] lookups(Integer[] keys, int count) {
+        Random random = new Random(SEED + 1);
+        Integer[] lookups = new Integer[count];
+        int n = keys.length;
+        if (this == ZIPF) {
+            // keys is a random permutation, so rank r is simply keys[r].
+            double logRange = Math.log(n + 1.0);
+            for (int i = 0; i < count; i++) {
+                int rank = (int) Math.exp(random.nextDouble() * logRange) - 1;
+                lookups[i] = keys[Math.min(rank, n - 1)];
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                lookups[i] = keys[random.nextInt(n)];
+            }
+        }
+        return lookups;
+    }
+
+    private static void shuffle(Integer[] keys, Random random) {
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+    }
+}
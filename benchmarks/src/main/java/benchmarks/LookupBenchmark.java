@@ -0,0 +1,67 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read-only lookups against the structures built for them: FrozenBST's
+ * Eytzinger array against the node-based BST it was frozen from, with AVL
+ * and TreeSet for reference. Under ZIPF, SplayTree shows what moving the
+ * hot keys to the root buys over a static shape. Keys are inserted
+ * shuffled so BST is as balanced as it gets without rebalancing.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"BST", "FrozenBST", "AVL", "SplayTree", "TreeSet"})
+    public String tree;
+
+    @Param({"RANDOM", "ZIPF"})
+    public KeyDistribution distribution;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private Integer[] lookups;
+    private TreeAdapter adapter;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Integer[] keys = distribution.insertionOrder(size);
+        lookups = distribution.lookups(keys, LOOKUPS);
+        adapter = Adapters.create(tree, keys);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return adapter.contains(lookups[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Object get() {
+        return adapter.get(lookups[next++ & (LOOKUPS - 1)]);
+    }
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The operations every benchmarked tree exposes, with boxed Integer keys.
+ *
+ * The trees live in the unnamed package, which JMH benchmark classes cannot
+ * import, so each tree gets a small adapter in the unnamed package that
+ * implements this interface, and Adapters loads it by name. Every JMH fork
+ * only ever sees one implementation, so the JIT inlines the calls.
+ *
+ * Operations a tree does not support throw UnsupportedOperationException.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public interface TreeAdapter {
+
+    void add(Integer key);
+
+    Object remove(Integer key);
+
+    Object get(Integer key);
+
+    boolean contains(Integer key);
+
+    Object preorder();
+
+    Object inorder();
+
+    Object postorder();
+
+    Object levelorder();
+
+    int height();
+
+    Object kLargest(int k);
+
+    void clear();
+
+    /**
+     * Adds a batch of keys; trees without a batch operation add them one by
+     * one.
+     *
+     * @param keys the keys to add
+     * @return the number of keys added
+     */
+    default int addAll(List<Integer> keys) {
+        int before = size();
+        for (Integer key : keys) {
+            add(key);
+        }
+        return size() - before;
+    }
+
+    /**
+     * Removes a batch of keys; trees without a batch operation remove the
+     * present ones one by one.
+     *
+     * @param keys the keys to remove
+     * @return the number of keys removed
+     */
+    default int removeAll(List<Integer> keys) {
+        int before = size();
+        for (Integer key : keys) {
+            try {
+                remove(key);
+            } catch (NoSuchElementException e) {
+                // Absent keys are skipped, as in BST.removeAll.
+            }
+        }
+        return before - size();
+    }
+
+    int size();
+}
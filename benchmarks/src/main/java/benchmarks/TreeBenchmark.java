@@ -0,0 +1,126 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Every tree operation, over each tree, key distribution and size.
+ *
+ * The point operations (get, contains, removeAndAdd) report the time of one
+ * operation and cycle through a fixed array of lookup keys; the traversals,
+ * height and kLargest report the time of one call on the whole tree, and
+ * build reports the time to add all n keys to an empty tree.
+ *
+ * SORTED, REVERSE and ZIGZAG keys degenerate BST into a path, where building
+ * takes O(n^2) and the larger sizes do not finish in reasonable time. Narrow
+ * the matrix on the command line, e.g.
+ * java -jar target/benchmarks.jar TreeBenchmark -p tree=BST -p size=1000,10000
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreeBenchmark {
+
+    private static final int LOOKUPS = 1 << 16;
+    private static final int K = 100;
+
+    @Param({"BST", "AVL", "IntBST", "SplayTree", "ScapegoatTree", "Treap", "TreeSet"})
+    public String tree;
+
+    @Param({"RANDOM", "SORTED", "REVERSE", "ZIGZAG", "ZIPF"})
+    public KeyDistribution distribution;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private Integer[] keys;
+    private Integer[] lookups;
+    private TreeAdapter adapter;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = distribution.insertionOrder(size);
+        lookups = distribution.lookups(keys, LOOKUPS);
+        adapter = Adapters.create(tree, keys);
+    }
+
+    private Integer nextLookup() {
+        return lookups[next++ & (LOOKUPS - 1)];
+    }
+
+    @Benchmark
+    public int build() {
+        adapter.clear();
+        for (Integer key : keys) {
+            adapter.add(key);
+        }
+        return adapter.size();
+    }
+
+    @Benchmark
+    public int removeAndAdd() {
+        Integer key = nextLookup();
+        adapter.remove(key);
+        adapter.add(key);
+        return adapter.size();
+    }
+
+    @Benchmark
+    public Object get() {
+        return adapter.get(nextLookup());
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return adapter.contains(nextLookup());
+    }
+
+    @Benchmark
+    public Object preorder() {
+        return adapter.preorder();
+    }
+
+    @Benchmark
+    public Object inorder() {
+        return adapter.inorder();
+    }
+
+    @Benchmark
+    public Object postorder() {
+        return adapter.postorder();
+    }
+
+    @Benchmark
+    public Object levelorder() {
+        return adapter.levelorder();
+    }
+
+    @Benchmark
+    public int height() {
+        return adapter.height();
+    }
+
+    @Benchmark
+    public Object kLargest() {
+        return adapter.kLargest(Math.min(K, size));
+    }
+}
@@ -0,0 +1,754 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Your implementation of an AVL, the self-balancing variant of the BST.
+ *
+ * Every add and remove rebalances the nodes along the mutation path, so the
+ * height of the tree stays within about 1.44 * log(n) even when the data
+ * arrives in sorted order. The public API mirrors BST.
+ *
+ * Each node also stores the size of its subtree, which turns the order
+ * statistic queries (rank, select, kSmallest and kLargest) into O(log n)
+ * descents.
+ *
+ * The set operations (union, intersection and difference) are built on the
+ * join and split primitives of Blelloch, Ferizovic and Sun, which combine
+ * two trees in O(m log(n / m + 1)) for sizes m <= n and relink the existing
+ * nodes instead of copying them.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class AVL<T extends Comparable<? super T>> {
+
+    private AVLNode<T> root;
+    private int size;
+
+    /**
+     * Constructs a new AVL.
+     *
+     * This constructor should initialize an empty AVL.
+     */
+    public AVL() {
+        // nothing to initialize
+    }
+
+    /**
+     * Constructs a new AVL.
+     *
+     * This constructor should initialize the AVL with the data in the
+     * Collection. The data should be added in the same order it is in the
+     * Collection.
+     *
+     * @param data the data to add to the tree
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public AVL(Collection<T> data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot build AVL with null collection");
+        } else {
+            for (T element: data) {
+                if (element == null) {
+                    throw new java.lang.IllegalArgumentException("cannot add null element in AVL");
+                }
+                add(element);
+            }
+        }
+    }
+
+    /**
+     * Adds the data to the tree.
+     *
+     * The data becomes a leaf in the tree, after which every node on the
+     * path back to the root is updated and rotated if it became unbalanced.
+     * If the data is already in the tree, then nothing should be done.
+     *
+     * Must be O(log n) for all cases.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot add null data into AVL");
+        } else {
+            root = addHelper(root, data);
+        }
+    }
+
+    private AVLNode<T> addHelper(AVLNode<T> node, T data) {
+        if (node == null) {
+            size++;
+            return new AVLNode<T>(data);
+        }
+        int compare = data.compareTo(node.getData());
+        if (compare < 0) {
+            node.setLeft(addHelper(node.getLeft(), data));
+        } else if (compare > 0) {
+            node.setRight(addHelper(node.getRight(), data));
+        } else {
+            return node;
+        }
+        return balance(node);
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given parameter.
+     *
+     * A node with two children is replaced by its successor, as in BST, and
+     * every node on the path back to the root is rebalanced.
+     *
+     * Must be O(log n) for all cases.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot remove null data");
+        } else if (root == null) {
+            throw new java.util.NoSuchElementException("cannot remove for empty AVL");
+        } else {
+            AVLNode<T> temp = new AVLNode<>(null);
+            root = removeHelper(root, data, temp);
+            return temp.getData();
+        }
+    }
+
+    private AVLNode<T> removeHelper(AVLNode<T> node, T data, AVLNode<T> temp) {
+        if (node == null) {
+            throw new java.util.NoSuchElementException("cannot remove data if data is not in AVL");
+        }
+        int compare = data.compareTo(node.getData());
+        if (compare < 0) {
+            node.setLeft(removeHelper(node.getLeft(), data, temp));
+        } else if (compare > 0) {
+            node.setRight(removeHelper(node.getRight(), data, temp));
+        } else {
+            temp.setData(node.getData());
+            size--;
+            if (node.getLeft() == null) {
+                return node.getRight();
+            } else if (node.getRight() == null) {
+                return node.getLeft();
+            } else {
+                AVLNode<T> successor = new AVLNode<>(null);
+                node.setRight(successorFinder(node.getRight(), successor));
+                node.setData(successor.getData());
+            }
+        }
+        return balance(node);
+    }
+
+    private AVLNode<T> successorFinder(AVLNode<T> node, AVLNode<T> temp) {
+        if (node.getLeft() == null) {
+            temp.setData(node.getData());
+            return node.getRight();
+        } else {
+            node.setLeft(successorFinder(node.getLeft(), temp));
+        }
+        return balance(node);
+    }
+
+    /**
+     * Recomputes the height, balance factor and size of the node from its
+     * children.
+     *
+     * @param node the node to update
+     */
+    private void update(AVLNode<T> node) {
+        int leftHeight = heightOf(node.getLeft());
+        int rightHeight = heightOf(node.getRight());
+        node.setHeight(Math.max(leftHeight, rightHeight) + 1);
+        node.setBalanceFactor(leftHeight - rightHeight);
+        node.setSize(sizeOf(node.getLeft()) + sizeOf(node.getRight()) + 1);
+    }
+
+    private int heightOf(AVLNode<T> node) {
+        return node == null ? -1 : node.getHeight();
+    }
+
+    private int sizeOf(AVLNode<T> node) {
+        return node == null ? 0 : node.getSize();
+    }
+
+    /**
+     * Updates the node and performs the rotations needed to bring its balance
+     * factor back into [-1, 1].
+     *
+     * @param node the node to balance
+     * @return the new root of the subtree
+     */
+    private AVLNode<T> balance(AVLNode<T> node) {
+        update(node);
+        if (node.getBalanceFactor() > 1) {
+            if (node.getLeft().getBalanceFactor() < 0) {
+                node.setLeft(rotateLeft(node.getLeft()));
+            }
+            return rotateRight(node);
+        } else if (node.getBalanceFactor() < -1) {
+            if (node.getRight().getBalanceFactor() > 0) {
+                node.setRight(rotateRight(node.getRight()));
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private AVLNode<T> rotateLeft(AVLNode<T> node) {
+        AVLNode<T> child = node.getRight();
+        node.setRight(child.getLeft());
+        child.setLeft(node);
+        update(node);
+        update(child);
+        return child;
+    }
+
+    private AVLNode<T> rotateRight(AVLNode<T> node) {
+        AVLNode<T> child = node.getLeft();
+        node.setLeft(child.getRight());
+        child.setRight(node);
+        update(node);
+        update(child);
+        return child;
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Must be O(log n) for all cases.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot get data if data is null");
+        }
+        AVLNode<T> node = root;
+        while (node != null) {
+            int compare = data.compareTo(node.getData());
+            if (compare == 0) {
+                return node.getData();
+            }
+            node = compare < 0 ? node.getLeft() : node.getRight();
+        }
+        throw new java.util.NoSuchElementException("cannot get data if data is not in AVL");
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n) for all cases.
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("AVL doesn't contain null data");
+        }
+        AVLNode<T> node = root;
+        while (node != null) {
+            int compare = data.compareTo(node.getData());
+            if (compare == 0) {
+                return true;
+            }
+            node = compare < 0 ? node.getLeft() : node.getRight();
+        }
+        return false;
+    }
+
+    /**
+     * Generate a pre-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the preorder traversal of the tree
+     */
+    public List<T> preorder() {
+        List<T> list = new ArrayList<>(size);
+        preOrderHelper(root, list);
+        return list;
+    }
+
+    private void preOrderHelper(AVLNode<T> node, List<T> list) {
+        if (node != null) {
+            list.add(node.getData());
+            preOrderHelper(node.getLeft(), list);
+            preOrderHelper(node.getRight(), list);
+        }
+    }
+
+    /**
+     * Generate an in-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        List<T> list = new ArrayList<>(size);
+        inOrderHelper(root, list);
+        return list;
+    }
+
+    private void inOrderHelper(AVLNode<T> node, List<T> list) {
+        if (node != null) {
+            inOrderHelper(node.getLeft(), list);
+            list.add(node.getData());
+            inOrderHelper(node.getRight(), list);
+        }
+    }
+
+    /**
+     * Generate a post-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the postorder traversal of the tree
+     */
+    public List<T> postorder() {
+        List<T> list = new ArrayList<>(size);
+        postOrderHelper(root, list);
+        return list;
+    }
+
+    private void postOrderHelper(AVLNode<T> node, List<T> list) {
+        if (node != null) {
+            postOrderHelper(node.getLeft(), list);
+            postOrderHelper(node.getRight(), list);
+            list.add(node.getData());
+        }
+    }
+
+    /**
+     * Generate a level-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the level order traversal of the tree
+     */
+    public List<T> levelorder() {
+        Queue<AVLNode<T>> queue = new LinkedList<>();
+        List<T> list = new ArrayList<>(size);
+        if (root != null) {
+            queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            AVLNode<T> node = queue.remove();
+            list.add(node.getData());
+            if (node.getLeft() != null) {
+                queue.add(node.getLeft());
+            }
+            if (node.getRight() != null) {
+                queue.add(node.getRight());
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the height of the root of the tree.
+     *
+     * Heights are stored in the nodes, so this is O(1).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        return heightOf(root);
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Clears all data and resets the size.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Finds and retrieves the k-largest elements from the AVL in sorted order,
+     * least to greatest.
+     *
+     * The subtree sizes locate the (n - k)-th smallest data in one descent,
+     * and an in-order walk from there collects the rest.
+     *
+     * Must be O(log(n) + k).
+     *
+     * @param k the number of largest elements to return
+     * @return sorted list consisting of the k largest elements
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of data in the AVL
+     */
+    public List<T> kLargest(int k) {
+        if (k < 0 || k > size) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        } else {
+            return slice(size - k, k);
+        }
+    }
+
+    /**
+     * Finds and retrieves the k-smallest elements from the AVL in sorted
+     * order, least to greatest.
+     *
+     * Must be O(log(n) + k).
+     *
+     * @param k the number of smallest elements to return
+     * @return sorted list consisting of the k smallest elements
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of data in the AVL
+     */
+    public List<T> kSmallest(int k) {
+        if (k < 0 || k > size) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        } else {
+            return slice(0, k);
+        }
+    }
+
+    /**
+     * Collects count data in sorted order, starting at the given index.
+     *
+     * @param from  the index of the first data to collect
+     * @param count the number of data to collect
+     * @return the collected data, least to greatest
+     */
+    private List<T> slice(int from, int count) {
+        List<T> list = new ArrayList<>(count);
+        Deque<AVLNode<T>> stack = new ArrayDeque<>();
+        AVLNode<T> node = root;
+        int index = from;
+        while (node != null && count > 0) {
+            int leftSize = sizeOf(node.getLeft());
+            if (index < leftSize) {
+                stack.push(node);
+                node = node.getLeft();
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.getRight();
+            } else {
+                stack.push(node);
+                node = null;
+            }
+        }
+        while (list.size() < count) {
+            node = stack.pop();
+            list.add(node.getData());
+            node = node.getRight();
+            while (node != null) {
+                stack.push(node);
+                node = node.getLeft();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the number of data in the tree that are strictly less than the
+     * given data. The data itself does not need to be in the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to rank
+     * @return the number of data less than the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public int rank(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot rank null data");
+        }
+        int rank = 0;
+        AVLNode<T> node = root;
+        while (node != null) {
+            int compare = data.compareTo(node.getData());
+            if (compare < 0) {
+                node = node.getLeft();
+            } else {
+                rank += sizeOf(node.getLeft());
+                if (compare == 0) {
+                    return rank;
+                }
+                rank++;
+                node = node.getRight();
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the data with the given rank, that is the index-th smallest
+     * data in the tree counting from 0.
+     *
+     * Must be O(log n).
+     *
+     * @param index the rank of the data to return
+     * @return the data with that rank
+     * @throws java.lang.IllegalArgumentException if index < 0 or index >= n,
+     *                                            the number of data in the AVL
+     */
+    public T select(int index) {
+        if (index < 0 || index >= size) {
+            throw new java.lang.IllegalArgumentException("cannot select index " + index + " out of " + size);
+        }
+        AVLNode<T> node = root;
+        while (true) {
+            int leftSize = sizeOf(node.getLeft());
+            if (index < leftSize) {
+                node = node.getLeft();
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.getRight();
+            } else {
+                return node.getData();
+            }
+        }
+    }
+
+    /**
+     * Adds every data of the other tree to this tree.
+     *
+     * The nodes of the other tree are moved into this one, so the other tree
+     * is left empty. Where both trees hold equal data, the data already in
+     * this tree is kept.
+     *
+     * Must be O(m log(n / m + 1)), where m <= n are the sizes of the trees.
+     *
+     * @param other the tree to merge into this one
+     * @throws java.lang.IllegalArgumentException if other is null
+     */
+    public void union(AVL<T> other) {
+        if (other == null) {
+            throw new java.lang.IllegalArgumentException("cannot union with null tree");
+        } else if (other != this) {
+            root = unionHelper(root, other.root);
+            size = sizeOf(root);
+            other.clear();
+        }
+    }
+
+    private AVLNode<T> unionHelper(AVLNode<T> first, AVLNode<T> second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        }
+        AVLNode<T> left = first.getLeft();
+        AVLNode<T> right = first.getRight();
+        Split<T> split = split(second, first.getData());
+        return join(unionHelper(left, split.left), first, unionHelper(right, split.right));
+    }
+
+    /**
+     * Keeps only the data of this tree that is also in the other tree.
+     *
+     * The other tree is left empty, since its nodes are taken apart while
+     * the two trees are compared.
+     *
+     * Must be O(m log(n / m + 1)), where m <= n are the sizes of the trees.
+     *
+     * @param other the tree to intersect this one with
+     * @throws java.lang.IllegalArgumentException if other is null
+     */
+    public void intersection(AVL<T> other) {
+        if (other == null) {
+            throw new java.lang.IllegalArgumentException("cannot intersect with null tree");
+        } else if (other != this) {
+            root = intersectionHelper(root, other.root);
+            size = sizeOf(root);
+            other.clear();
+        }
+    }
+
+    private AVLNode<T> intersectionHelper(AVLNode<T> first, AVLNode<T> second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        AVLNode<T> left = first.getLeft();
+        AVLNode<T> right = first.getRight();
+        Split<T> split = split(second, first.getData());
+        left = intersectionHelper(left, split.left);
+        right = intersectionHelper(right, split.right);
+        return split.found != null ? join(left, first, right) : join(left, right);
+    }
+
+    /**
+     * Removes every data of the other tree from this tree.
+     *
+     * The other tree is left empty, since its nodes are taken apart while
+     * the two trees are compared.
+     *
+     * Must be O(m log(n / m + 1)), where m <= n are the sizes of the trees.
+     *
+     * @param other the tree whose data is removed from this one
+     * @throws java.lang.IllegalArgumentException if other is null
+     */
+    public void difference(AVL<T> other) {
+        if (other == null) {
+            throw new java.lang.IllegalArgumentException("cannot subtract null tree");
+        } else if (other == this) {
+            clear();
+        } else {
+            root = differenceHelper(root, other.root);
+            size = sizeOf(root);
+            other.clear();
+        }
+    }
+
+    private AVLNode<T> differenceHelper(AVLNode<T> first, AVLNode<T> second) {
+        if (first == null || second == null) {
+            return first;
+        }
+        AVLNode<T> left = second.getLeft();
+        AVLNode<T> right = second.getRight();
+        Split<T> split = split(first, second.getData());
+        return join(differenceHelper(split.left, left), differenceHelper(split.right, right));
+    }
+
+    /**
+     * The result of splitting a subtree around some data: the subtree of the
+     * smaller data, the detached node equal to the data if there was one,
+     * and the subtree of the larger data.
+     */
+    private static final class Split<T extends Comparable<? super T>> {
+        private AVLNode<T> left;
+        private AVLNode<T> found;
+        private AVLNode<T> right;
+
+        Split(AVLNode<T> left, AVLNode<T> found, AVLNode<T> right) {
+            this.left = left;
+            this.found = found;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Splits the subtree into the data less than and greater than the given
+     * data. Must be O(log n).
+     *
+     * @param node the root of the subtree to split
+     * @param data the data to split around
+     * @return the two balanced halves and the node equal to data, if any
+     */
+    private Split<T> split(AVLNode<T> node, T data) {
+        if (node == null) {
+            return new Split<>(null, null, null);
+        }
+        AVLNode<T> left = node.getLeft();
+        AVLNode<T> right = node.getRight();
+        int compare = data.compareTo(node.getData());
+        if (compare == 0) {
+            node.setLeft(null);
+            node.setRight(null);
+            update(node);
+            return new Split<>(left, node, right);
+        } else if (compare < 0) {
+            Split<T> split = split(left, data);
+            split.right = join(split.right, node, right);
+            return split;
+        } else {
+            Split<T> split = split(right, data);
+            split.left = join(left, node, split.left);
+            return split;
+        }
+    }
+
+    /**
+     * Joins two balanced subtrees and a middle node, where every data in left
+     * is less than the middle data and every data in right is greater.
+     *
+     * The middle node is hung off the spine of the taller subtree at the
+     * point where the heights differ by at most one, and the nodes above it
+     * are rebalanced. Must be O(|height(left) - height(right)| + 1).
+     *
+     * @param left   the subtree of smaller data
+     * @param middle the node to join with, whose children are overwritten
+     * @param right  the subtree of larger data
+     * @return the root of the joined subtree
+     */
+    private AVLNode<T> join(AVLNode<T> left, AVLNode<T> middle, AVLNode<T> right) {
+        int leftHeight = heightOf(left);
+        int rightHeight = heightOf(right);
+        if (leftHeight > rightHeight + 1) {
+            left.setRight(join(left.getRight(), middle, right));
+            return balance(left);
+        } else if (rightHeight > leftHeight + 1) {
+            right.setLeft(join(left, middle, right.getLeft()));
+            return balance(right);
+        } else {
+            middle.setLeft(left);
+            middle.setRight(right);
+            update(middle);
+            return middle;
+        }
+    }
+
+    /**
+     * Joins two balanced subtrees, where every data in left is less than
+     * every data in right, by pulling the maximum out of left as the middle
+     * node. Must be O(log n).
+     *
+     * @param left  the subtree of smaller data
+     * @param right the subtree of larger data
+     * @return the root of the joined subtree
+     */
+    private AVLNode<T> join(AVLNode<T> left, AVLNode<T> right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        }
+        Split<T> last = splitLast(left);
+        return join(last.left, last.found, right);
+    }
+
+    private Split<T> splitLast(AVLNode<T> node) {
+        if (node.getRight() == null) {
+            AVLNode<T> left = node.getLeft();
+            node.setLeft(null);
+            update(node);
+            return new Split<>(left, node, null);
+        }
+        Split<T> split = splitLast(node.getRight());
+        node.setRight(split.left);
+        split.left = balance(node);
+        return split;
+    }
+
+    /**
+     * Returns the root of the tree.
+     *
+     * @return the root of the tree
+     */
+    public AVLNode<T> getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
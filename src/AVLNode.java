@@ -0,0 +1,137 @@
+/**
+ * Node class used for implementing the AVL.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class AVLNode<T extends Comparable<? super T>> {
+
+    private T data;
+    private AVLNode<T> left;
+    private AVLNode<T> right;
+    private int height;
+    private int balanceFactor;
+    private int size = 1;
+
+    /**
+     * Constructs an AVLNode with the given data.
+     *
+     * @param data the data stored in the new node
+     */
+    AVLNode(T data) {
+        this.data = data;
+    }
+
+    /**
+     * Gets the data.
+     *
+     * @return the data
+     */
+    T getData() {
+        return data;
+    }
+
+    /**
+     * Gets the left child.
+     *
+     * @return the left child
+     */
+    AVLNode<T> getLeft() {
+        return left;
+    }
+
+    /**
+     * Gets the right child.
+     *
+     * @return the right child
+     */
+    AVLNode<T> getRight() {
+        return right;
+    }
+
+    /**
+     * Gets the height.
+     *
+     * @return the height
+     */
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the balance factor.
+     *
+     * @return the balance factor
+     */
+    int getBalanceFactor() {
+        return balanceFactor;
+    }
+
+    /**
+     * Gets the number of nodes in the subtree rooted at this node.
+     *
+     * @return the size of the subtree
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the data.
+     *
+     * @param data the new data
+     */
+    void setData(T data) {
+        this.data = data;
+    }
+
+    /**
+     * Sets the left child.
+     *
+     * @param left the new left child
+     */
+    void setLeft(AVLNode<T> left) {
+        this.left = left;
+    }
+
+    /**
+     * Sets the right child.
+     *
+     * @param right the new right child
+     */
+    void setRight(AVLNode<T> right) {
+        this.right = right;
+    }
+
+    /**
+     * Sets the height.
+     *
+     * @param height the new height
+     */
+    void setHeight(int height) {
+        this.height = height;
+    }
+
+    /**
+     * Sets the balance factor.
+     *
+     * @param balanceFactor the new balance factor
+     */
+    void setBalanceFactor(int balanceFactor) {
+        this.balanceFactor = balanceFactor;
+    }
+
+    /**
+     * Sets the number of nodes in the subtree rooted at this node.
+     *
+     * @param size the new size of the subtree
+     */
+    void setSize(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return "Node containing: " + data;
+    }
+}
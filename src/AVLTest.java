@@ -0,0 +1,277 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for AVL.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class AVLTest {
+
+    private static final int TIMEOUT = 200;
+    private AVL<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new AVL<>();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testInitialization() {
+        assertEquals(0, tree.size());
+        assertNull(tree.getRoot());
+        assertEquals(-1, tree.height());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAddRotations() {
+        /*
+            0                 1
+             \               / \
+              1      ->     0   2
+               \
+                2
+        */
+
+        tree.add(0);
+        tree.add(1);
+        tree.add(2);
+
+        assertEquals(3, tree.size());
+        assertEquals((Integer) 1, tree.getRoot().getData());
+        assertEquals((Integer) 0, tree.getRoot().getLeft().getData());
+        assertEquals((Integer) 2, tree.getRoot().getRight().getData());
+        assertEquals(1, tree.getRoot().getHeight());
+        assertEquals(0, tree.getRoot().getBalanceFactor());
+
+        /*
+              1                  1
+             / \                / \
+            0   2      ->      0   3
+                 \                / \
+                  4              2   4
+                 /
+                3
+        */
+
+        tree.add(4);
+        tree.add(3);
+
+        assertEquals((Integer) 3, tree.getRoot().getRight().getData());
+        assertEquals((Integer) 2, tree.getRoot().getRight().getLeft().getData());
+        assertEquals((Integer) 4, tree.getRoot().getRight().getRight().getData());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSortedInputStaysLogarithmic() {
+        int n = 1 << 16;
+        for (int i = 0; i < n; i++) {
+            tree.add(i);
+        }
+        assertEquals(n, tree.size());
+        assertEquals(16, tree.height());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRemove() {
+        Integer temp = 2;
+
+        /*
+              1                  3
+             / \                / \
+            0   3      ->      1   4
+               / \
+              2   4
+        */
+
+        tree.add(1);
+        tree.add(0);
+        tree.add(temp);
+        tree.add(3);
+        tree.add(4);
+
+        tree.remove(0);
+        assertSame(temp, tree.remove(2));
+        assertEquals(3, tree.size());
+        assertEquals((Integer) 3, tree.getRoot().getData());
+        assertEquals((Integer) 1, tree.getRoot().getLeft().getData());
+        assertEquals((Integer) 4, tree.getRoot().getRight().getData());
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() {
+        tree.add(1);
+        tree.remove(2);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        tree.add(null);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGetAndContains() {
+        Integer temp = 300;
+        tree.add(100);
+        tree.add(temp);
+        tree.add(200);
+
+        assertSame(temp, tree.get(300));
+        assertTrue(tree.contains(200));
+        assertFalse(tree.contains(400));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRandomMutationsKeepInvariants() {
+        Random random = new Random(1332);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(1000);
+            if (random.nextBoolean()) {
+                tree.add(value);
+                expected.add(value);
+            } else if (expected.remove(value)) {
+                assertEquals((Integer) value, tree.remove(value));
+            }
+        }
+        assertEquals(expected.size(), tree.size());
+        assertEquals(new ArrayList<>(expected), tree.inorder());
+        assertBalanced(tree.getRoot());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTraversalsAndKLargest() {
+        /*
+                  2
+                /   \
+               1     4
+              /     / \
+             0     3   5
+        */
+
+        for (int i : new int[] {2, 1, 4, 0, 3, 5}) {
+            tree.add(i);
+        }
+
+        assertEquals(List.of(2, 1, 0, 4, 3, 5), tree.preorder());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), tree.inorder());
+        assertEquals(List.of(0, 1, 3, 5, 4, 2), tree.postorder());
+        assertEquals(List.of(2, 1, 4, 0, 3, 5), tree.levelorder());
+        assertEquals(List.of(3, 4, 5), tree.kLargest(3));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testOrderStatistics() {
+        for (int i = 0; i < 100; i++) {
+            tree.add(i * 2);
+        }
+
+        assertEquals(0, tree.rank(0));
+        assertEquals(0, tree.rank(-5));
+        assertEquals(10, tree.rank(20));
+        assertEquals(11, tree.rank(21));
+        assertEquals(100, tree.rank(500));
+        assertEquals((Integer) 0, tree.select(0));
+        assertEquals((Integer) 42, tree.select(21));
+        assertEquals((Integer) 198, tree.select(99));
+        assertEquals(List.of(0, 2, 4), tree.kSmallest(3));
+        assertEquals(List.of(194, 196, 198), tree.kLargest(3));
+        assertEquals(tree.inorder(), tree.kLargest(100));
+        assertEquals(List.of(), tree.kSmallest(0));
+
+        tree.remove(42);
+        assertEquals((Integer) 44, tree.select(21));
+        assertEquals(99, tree.getRoot().getSize());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testSelectOutOfRange() {
+        tree.add(1);
+        tree.select(1);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSetAlgebra() {
+        Random random = new Random(1332);
+        for (int round = 0; round < 20; round++) {
+            TreeSet<Integer> first = new TreeSet<>();
+            TreeSet<Integer> second = new TreeSet<>();
+            int firstSize = random.nextInt(500);
+            int secondSize = random.nextInt(50);
+            for (int i = 0; i < firstSize; i++) {
+                first.add(random.nextInt(1000));
+            }
+            for (int i = 0; i < secondSize; i++) {
+                second.add(random.nextInt(1000));
+            }
+
+            AVL<Integer> union = new AVL<>(first);
+            AVL<Integer> other = new AVL<>(second);
+            union.union(other);
+            TreeSet<Integer> expected = new TreeSet<>(first);
+            expected.addAll(second);
+            assertSetEquals(expected, union);
+            assertEquals(0, other.size());
+            assertNull(other.getRoot());
+
+            AVL<Integer> intersection = new AVL<>(second);
+            intersection.intersection(new AVL<>(first));
+            expected = new TreeSet<>(second);
+            expected.retainAll(first);
+            assertSetEquals(expected, intersection);
+
+            AVL<Integer> difference = new AVL<>(first);
+            difference.difference(new AVL<>(second));
+            expected = new TreeSet<>(first);
+            expected.removeAll(second);
+            assertSetEquals(expected, difference);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testUnionKeepsExistingData() {
+        Integer temp = 1000;
+        tree.add(temp);
+        AVL<Integer> other = new AVL<>();
+        other.add(Integer.valueOf(1000));
+        other.add(5);
+
+        tree.union(other);
+        assertEquals(2, tree.size());
+        assertSame(temp, tree.get(1000));
+    }
+
+    private void assertSetEquals(TreeSet<Integer> expected, AVL<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected), actual.inorder());
+        assertBalanced(actual.getRoot());
+    }
+
+    private int assertBalanced(AVLNode<Integer> node) {
+        if (node == null) {
+            return -1;
+        }
+        int left = assertBalanced(node.getLeft());
+        int right = assertBalanced(node.getRight());
+        assertEquals(Math.max(left, right) + 1, node.getHeight());
+        assertEquals(left - right, node.getBalanceFactor());
+        assertTrue(Math.abs(left - right) <= 1);
+        int size = 1 + (node.getLeft() == null ? 0 : node.getLeft().getSize())
+                + (node.getRight() == null ? 0 : node.getRight().getSize());
+        assertEquals(size, node.getSize());
+        return node.getHeight();
+    }
+}
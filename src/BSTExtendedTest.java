@@ -0,0 +1,648 @@
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the BST operations beyond the ones covered by the homework
+ * JUnits.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class BSTExtendedTest {
+
+    private static final int TIMEOUT = 2000;
+    private BST<Integer> tree;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setup() {
+        tree = new BST<>();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDegenerateTreeIsStackSafe() throws InterruptedException {
+        int n = 5000;
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            expected.add(i);
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                for (int i = 0; i < n; i++) {
+                    tree.add(i);
+                }
+                assertEquals(n - 1, tree.height());
+                assertEquals(expected, tree.inorder());
+                assertEquals(expected, tree.preorder());
+                assertEquals(expected, tree.levelorder());
+                assertEquals(n, tree.postorder().size());
+                assertEquals(expected.subList(n - 3, n), tree.kLargest(3));
+                assertTrue(tree.contains(n - 1));
+                assertEquals((Integer) (n - 1), tree.get(n - 1));
+                assertEquals((Integer) (n - 1), tree.remove(n - 1));
+                assertFalse(tree.contains(n - 1));
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        }, "small-stack", 1 << 16);
+        thread.start();
+        thread.join();
+        assertNull(failure.get());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLazyIteratorsMatchTraversals() {
+        Random random = new Random(1332);
+        for (int i = 0; i < 500; i++) {
+            tree.add(random.nextInt(1000));
+        }
+
+        assertEquals(tree.preorder(), drain(tree.preorderIterator()));
+        assertEquals(tree.inorder(), drain(tree.inorderIterator()));
+        assertEquals(tree.postorder(), drain(tree.postorderIterator()));
+        assertEquals(tree.levelorder(), drain(tree.levelorderIterator()));
+        assertEquals(tree.inorder(), tree.stream().collect(Collectors.toList()));
+        assertEquals(tree.inorder().subList(0, 5), tree.stream().limit(5).collect(Collectors.toList()));
+
+        List<Integer> forEach = new ArrayList<>();
+        for (Integer data : tree) {
+            forEach.add(data);
+        }
+        assertEquals(tree.inorder(), forEach);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLazyIteratorsOnEmptyTree() {
+        assertFalse(tree.preorderIterator().hasNext());
+        assertFalse(tree.inorderIterator().hasNext());
+        assertFalse(tree.postorderIterator().hasNext());
+        assertFalse(tree.levelorderIterator().hasNext());
+        assertEquals(0, tree.stream().count());
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testExhaustedIterator() {
+        tree.add(1);
+        Iterator<Integer> iterator = tree.inorderIterator();
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSpliteratorSplitsAtSubtrees() {
+        for (int i = 0; i < 1023; i++) {
+            tree.add(Integer.reverse(i) >>> 22);
+        }
+
+        Spliterator<Integer> spliterator = tree.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED
+                | Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT));
+        assertEquals(1023, spliterator.getExactSizeIfKnown());
+        assertNull(spliterator.getComparator());
+
+        List<Integer> collected = new ArrayList<>();
+        splitAndCollect(spliterator, collected, 6);
+        assertEquals(tree.inorder(), collected);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testParallelStream() {
+        Random random = new Random(1332);
+        for (int i = 0; i < 20000; i++) {
+            tree.add(random.nextInt());
+        }
+
+        long expected = 0;
+        for (Integer data : tree.inorder()) {
+            expected += data;
+        }
+        assertEquals(expected, tree.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(tree.inorder(), tree.parallelStream().collect(Collectors.toList()));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBulkLoadSorted() {
+        List<Integer> data = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            data.add(i);
+        }
+        tree = BST.bulkLoad(data);
+
+        assertEquals(100000, tree.size());
+        assertEquals(16, tree.height());
+        assertEquals(data, tree.inorder());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBulkLoadUnsortedSkipsDuplicates() {
+        Integer first = 1000;
+        /*
+                  3
+                /   \
+               1     1000
+              / \    /
+             0   2  5
+        */
+        tree = BST.bulkLoad(List.of(5, first, 3, 0, 1, 2, 3, 0, Integer.valueOf(1000)));
+
+        assertEquals(6, tree.size());
+        assertEquals(List.of(3, 1, 0, 2, 1000, 5), tree.preorder());
+        assertSame(first, tree.get(1000));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testBulkLoadNullElement() {
+        BST.bulkLoad(Arrays.asList(1, null, 2));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFloorCeilingLowerHigher() {
+        for (int i = 0; i <= 100; i += 10) {
+            tree.add(i);
+        }
+
+        assertEquals((Integer) 50, tree.floor(50));
+        assertEquals((Integer) 50, tree.floor(55));
+        assertNull(tree.floor(-1));
+        assertEquals((Integer) 50, tree.ceiling(50));
+        assertEquals((Integer) 60, tree.ceiling(55));
+        assertNull(tree.ceiling(101));
+        assertEquals((Integer) 40, tree.lower(50));
+        assertNull(tree.lower(0));
+        assertEquals((Integer) 60, tree.higher(50));
+        assertNull(tree.higher(100));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRangeQueries() {
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(1332);
+        for (int i = 0; i < 300; i++) {
+            int value = random.nextInt(1000);
+            tree.add(value);
+            expected.add(value);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            int low = random.nextInt(1100) - 50;
+            int high = low + random.nextInt(300);
+            assertEquals(new ArrayList<>(expected.subSet(low, high)), tree.subSet(low, high));
+            assertEquals(new ArrayList<>(expected.subSet(low, false, high, true)),
+                    tree.subSet(low, false, high, true));
+            assertEquals(new ArrayList<>(expected.headSet(high)), tree.headSet(high));
+            assertEquals(new ArrayList<>(expected.tailSet(low)), tree.tailSet(low));
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testSubSetReversedBounds() {
+        tree.subSet(5, 1);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFreeze() {
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(1332);
+        for (int n = 0; n < 40; n++) {
+            tree.clear();
+            expected.clear();
+            for (int i = 0; i < n; i++) {
+                int value = random.nextInt(100) * 2;
+                tree.add(value);
+                expected.add(value);
+            }
+            FrozenBST<Integer> frozen = tree.freeze();
+
+            assertEquals(expected.size(), frozen.size());
+            assertEquals(new ArrayList<>(expected), frozen.inorder());
+            assertEquals(tree.kLargest(expected.size() / 2), frozen.kLargest(expected.size() / 2));
+            for (int value = -1; value <= 200; value++) {
+                assertEquals(expected.contains(value), frozen.contains(value));
+                assertEquals(expected.floor(value), frozen.floor(value));
+                assertEquals(expected.ceiling(value), frozen.ceiling(value));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFreezeIsIndependentOfTree() {
+        Integer temp = 1000;
+        tree.add(temp);
+        FrozenBST<Integer> frozen = tree.freeze();
+        tree.remove(1000);
+
+        assertSame(temp, frozen.get(Integer.valueOf(1000)));
+        assertEquals(1, frozen.size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCachedHeightsMatchRecomputation() {
+        Random random = new Random(1332);
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(2000);
+            if (random.nextInt(3) > 0) {
+                tree.add(value);
+            } else if (tree.contains(value)) {
+                tree.remove(value);
+            }
+            if (i % 500 == 0) {
+                assertEquals(recomputeHeights(tree.getRoot()), tree.height());
+            }
+        }
+        assertEquals(recomputeHeights(tree.getRoot()), tree.height());
+
+        while (tree.size() > 0) {
+            tree.remove(tree.getRoot().getData());
+            assertEquals(recomputeHeights(tree.getRoot()), tree.height());
+        }
+        assertEquals(-1, tree.height());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBulkLoadHeights() {
+        List<Integer> data = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            data.add(i);
+        }
+        tree = BST.bulkLoad(data);
+        assertEquals(recomputeHeights(tree.getRoot()), tree.height());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMetrics() {
+        assertNull(tree.getMetrics());
+        BSTMetrics metrics = tree.enableMetrics();
+        assertSame(metrics, tree.enableMetrics());
+        /*
+                  4
+                /   \
+               2     6
+              / \   /
+             1   3 5
+         */
+        for (int i : new int[] {4, 2, 6, 1, 3, 5}) {
+            tree.add(i);
+        }
+        assertEquals(6, metrics.calls(BSTMetrics.Operation.ADD));
+        assertEquals(0 + 1 + 1 + 2 + 2 + 2, metrics.comparisons(BSTMetrics.Operation.ADD));
+
+        assertTrue(tree.contains(5));
+        assertFalse(tree.contains(7));
+        assertEquals(3 + 2, metrics.comparisons(BSTMetrics.Operation.CONTAINS));
+        assertEquals(2, metrics.depthPercentile(BSTMetrics.Operation.CONTAINS, 50));
+        assertEquals(3, metrics.depthPercentile(BSTMetrics.Operation.CONTAINS, 100));
+
+        // Removing 4 compares once, then walks 6 and 5 to the successor.
+        assertEquals((Integer) 4, tree.remove(4));
+        assertEquals(1, metrics.comparisons(BSTMetrics.Operation.REMOVE));
+        assertEquals(3, metrics.depthPercentile(BSTMetrics.Operation.REMOVE, 50));
+        try {
+            tree.get(7);
+            fail();
+        } catch (NoSuchElementException e) {
+            assertEquals(1, metrics.calls(BSTMetrics.Operation.GET));
+        }
+        assertTrue(metrics.latencyPercentile(BSTMetrics.Operation.ADD, 99)
+                >= metrics.latencyPercentile(BSTMetrics.Operation.ADD, 50));
+
+        String export = metrics.export();
+        assertTrue(export.startsWith("operation calls comparisons"));
+        assertTrue(export.contains("\ncontains 2 5 2 3 "));
+        assertTrue(export.contains("\ncontains depth 3..3 1\n"));
+
+        tree.disableMetrics();
+        assertNull(tree.getMetrics());
+        tree.add(4);
+        assertEquals(6, metrics.calls(BSTMetrics.Operation.ADD));
+        metrics.reset();
+        assertEquals(0, metrics.calls(BSTMetrics.Operation.CONTAINS));
+        assertEquals(0, metrics.latencyPercentile(BSTMetrics.Operation.CONTAINS, 50));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMetricsLatencyIncludesRebalance() {
+        List<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            sorted.add(i);
+        }
+        tree.addAll(sorted);
+        assertEquals(199999, tree.height());
+        BSTMetrics metrics = tree.enableMetrics();
+        tree.setRebalanceFactor(2);
+
+        // The add itself is one comparison; the rebalance it triggers relinks all 200000 nodes.
+        tree.add(-1);
+        assertEquals(17, tree.height());
+        assertEquals(1, metrics.calls(BSTMetrics.Operation.ADD));
+        assertEquals(1, metrics.depthPercentile(BSTMetrics.Operation.ADD, 100));
+        assertTrue(metrics.latencyPercentile(BSTMetrics.Operation.ADD, 100) >= 100000);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMetricsBuckets() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int bucket = BSTMetrics.bucket(value);
+            assertTrue(value <= BSTMetrics.upperBound(bucket));
+            assertTrue(bucket == 0 || value > BSTMetrics.upperBound(bucket - 1));
+            assertTrue(BSTMetrics.upperBound(bucket) <= value + value / 8);
+        }
+        assertEquals(Long.MAX_VALUE, BSTMetrics.upperBound(BSTMetrics.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSaveAndLoad() throws IOException {
+        Path file = folder.newFile().toPath();
+        Random random = new Random(17);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 50000; i++) {
+            int value = random.nextInt();
+            tree.add(value);
+            expected.add(value);
+        }
+        tree.save(file, KeyCodec.INTEGER);
+        assertEquals(8 + 4 * expected.size(), Files.size(file));
+        BST<Integer> loaded = BST.load(file, KeyCodec.INTEGER);
+        assertEquals(new ArrayList<>(expected), loaded.inorder());
+        assertEquals(expected.size(), loaded.size());
+        assertEquals(32 - Integer.numberOfLeadingZeros(expected.size()) - 1, loaded.height());
+        assertEquals(recomputeHeights(loaded.getRoot()), loaded.height());
+
+        BST<Long> longs = new BST<>(Arrays.asList(3L, Long.MIN_VALUE, Long.MAX_VALUE));
+        longs.save(file, KeyCodec.LONG);
+        assertEquals(Arrays.asList(Long.MIN_VALUE, 3L, Long.MAX_VALUE), BST.load(file, KeyCodec.LONG).inorder());
+
+        BST<String> strings = new BST<>();
+        String large = String.join("", java.util.Collections.nCopies(70000, "x"));
+        for (String value : new String[] {"pear", "", "\u00e9t\u00e9", "\ud83c\udf33", large}) {
+            strings.add(value);
+        }
+        strings.save(file, KeyCodec.STRING);
+        assertEquals(strings.inorder(), BST.load(file, KeyCodec.STRING).inorder());
+
+        new BST<Integer>().save(file, KeyCodec.INTEGER);
+        assertEquals(0, BST.load(file, KeyCodec.INTEGER).size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLoadRejectsCorruptSnapshots() throws IOException {
+        Path file = folder.newFile().toPath();
+        tree.add(1);
+        tree.add(2);
+        tree.save(file, KeyCodec.INTEGER);
+        byte[] valid = Files.readAllBytes(file);
+
+        byte[][] corrupt = {
+            new byte[0],
+            Arrays.copyOf(valid, valid.length - 1),
+            Arrays.copyOf(valid, valid.length + 1),
+            {0, 0, 0, 0, 0, 0, 0, 0},
+            {valid[0], valid[1], valid[2], valid[3], 0, 0, 0, 2, 0, 0, 0, 2, 0, 0, 0, 1},
+            // A size far beyond the file must not be allocated.
+            {valid[0], valid[1], valid[2], valid[3], 0x7f, -1, -1, -1, 0, 0, 0, 1, 0, 0, 0, 2},
+            {valid[0], valid[1], valid[2], valid[3], 0, 0, 0, 9, 0, 0, 0, 1, 0, 0, 0, 2},
+        };
+        for (byte[] bytes : corrupt) {
+            Files.write(file, bytes);
+            try {
+                BST.load(file, KeyCodec.INTEGER);
+                fail();
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("snapshot"));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBatchesMatchElementWiseApplication() {
+        Random random = new Random(2024);
+        BST<Integer> expected = new BST<>();
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(10000);
+            tree.add(value);
+            expected.add(value);
+        }
+        for (int round = 0; round < 20; round++) {
+            List<Integer> batch = new ArrayList<>();
+            int start = random.nextInt(10000);
+            for (int i = 0; i < 500; i++) {
+                batch.add(round % 2 == 0 ? random.nextInt(10000) : start + random.nextInt(800));
+            }
+            TreeSet<Integer> sorted = new TreeSet<>(batch);
+            int changed = 0;
+            if (round % 3 == 2) {
+                for (int value : sorted) {
+                    if (expected.contains(value)) {
+                        expected.remove(value);
+                        changed++;
+                    }
+                }
+                assertEquals(changed, tree.removeAll(batch));
+            } else {
+                for (int value : sorted) {
+                    if (!expected.contains(value)) {
+                        expected.add(value);
+                        changed++;
+                    }
+                }
+                assertEquals(changed, tree.addAll(batch));
+            }
+            assertEquals(expected.preorder(), tree.preorder());
+            assertEquals(expected.size(), tree.size());
+            assertEquals(expected.height(), tree.height());
+            recomputeHeights(tree.getRoot());
+        }
+        assertEquals(tree.size(), tree.removeAll(tree.inorder()));
+        assertNull(tree.getRoot());
+        assertEquals(3, tree.addAll(Arrays.asList(2, 1, 3, 2)));
+        assertEquals(Arrays.asList(1, 2, 3), tree.preorder());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBatchesRejectNullsUpFront() {
+        tree.add(1);
+        try {
+            tree.addAll(Arrays.asList(2, null, 3));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(Arrays.asList(1), tree.inorder());
+        }
+        try {
+            tree.removeAll(Arrays.asList(1, null));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(Arrays.asList(1), tree.inorder());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCursorWalksAndSeeks() {
+        Random random = new Random(77);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) {
+            int value = random.nextInt(10000) * 2;
+            tree.add(value);
+            expected.add(value);
+        }
+        BST<Integer>.Cursor cursor = tree.cursor();
+        assertFalse(cursor.isPositioned());
+        assertNull(cursor.next());
+
+        assertTrue(cursor.seek(expected.first()));
+        List<Integer> forward = new ArrayList<>();
+        for (Integer value = cursor.get(); value != null; value = cursor.next()) {
+            forward.add(value);
+        }
+        assertEquals(new ArrayList<>(expected), forward);
+        assertFalse(cursor.isPositioned());
+
+        cursor.seek(expected.last());
+        List<Integer> backward = new ArrayList<>();
+        for (Integer value = cursor.get(); value != null; value = cursor.prev()) {
+            backward.add(value);
+        }
+        assertEquals(new ArrayList<>(expected.descendingSet()), backward);
+
+        for (int i = 0; i < 2000; i++) {
+            int target = random.nextInt(20002) - 1;
+            Integer ceiling = expected.ceiling(target);
+            assertEquals(expected.contains(target), cursor.seek(target));
+            assertEquals(ceiling != null, cursor.isPositioned());
+            if (ceiling != null) {
+                assertEquals(ceiling, cursor.get());
+                assertEquals(expected.higher(ceiling), cursor.next());
+                cursor.seek(target);
+                assertEquals(expected.lower(ceiling), cursor.prev());
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCursorInsertMatchesAdd() {
+        BST<Integer> expected = new BST<>();
+        BST<Integer>.Cursor cursor = tree.cursor();
+        Random random = new Random(5);
+        int value = 5000;
+        for (int i = 0; i < 3000; i++) {
+            value += random.nextInt(21) - 10;
+            expected.add(value);
+            boolean added = !tree.contains(value);
+            assertEquals(added, cursor.insert(value));
+            assertEquals((Integer) value, cursor.get());
+        }
+        assertEquals(expected.preorder(), tree.preorder());
+        assertEquals(expected.size(), tree.size());
+        assertEquals(recomputeHeights(tree.getRoot()), tree.height());
+        assertEquals(expected.height(), tree.height());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRebalanceMakesCompleteTree() {
+        for (int n = 0; n <= 130; n++) {
+            tree.clear();
+            for (int i = 0; i < n; i++) {
+                tree.add(i % 2 == 0 ? i : -i);
+            }
+            List<Integer> inorder = tree.inorder();
+            tree.rebalance();
+            assertEquals(inorder, tree.inorder());
+            assertEquals(n, tree.size());
+            assertEquals(n == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(n), tree.height());
+            assertEquals(recomputeHeights(tree.getRoot()), tree.height());
+        }
+
+        // A degenerate chain too deep to walk recursively comes back at minimum height.
+        tree.clear();
+        for (int i = 0; i < 10000; i++) {
+            tree.add(i);
+        }
+        assertEquals(9999, tree.height());
+        tree.rebalance();
+        assertEquals(13, tree.height());
+        assertEquals(recomputeHeights(tree.getRoot()), tree.height());
+        assertEquals(List.of(9998, 9999), tree.kLargest(2));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRebalanceFactorBoundsHeight() {
+        try {
+            tree.setRebalanceFactor(1);
+            fail("factor of 1 accepted");
+        } catch (IllegalArgumentException e) {
+            assertEquals(-1, tree.height());
+        }
+        tree.setRebalanceFactor(2);
+        for (int i = 0; i < 20000; i++) {
+            tree.add(i);
+            assertTrue(tree.height() <= 2 * Math.log(tree.size()) / Math.log(2) + 1e-9 || tree.size() == 1);
+        }
+        tree.addAll(List.of(-3, -2, -1));
+        assertEquals(20003, tree.size());
+        assertEquals(recomputeHeights(tree.getRoot()), tree.height());
+
+        tree.setRebalanceFactor(0);
+        tree.clear();
+        for (int i = 0; i < 100; i++) {
+            tree.add(i);
+        }
+        assertEquals(99, tree.height());
+    }
+
+    /**
+     * Recomputes every height from scratch and checks it against the cached
+     * value of each node.
+     */
+    private static int recomputeHeights(BSTNode<Integer> node) {
+        if (node == null) {
+            return -1;
+        }
+        int height = Math.max(recomputeHeights(node.getLeft()), recomputeHeights(node.getRight())) + 1;
+        assertEquals(height, node.getHeight());
+        return height;
+    }
+
+    private static <E> void splitAndCollect(Spliterator<E> spliterator, List<E> list, int depth) {
+        Spliterator<E> prefix = depth > 0 ? spliterator.trySplit() : null;
+        if (prefix != null) {
+            assertTrue(prefix.estimateSize() > 0);
+            splitAndCollect(prefix, list, depth - 1);
+            splitAndCollect(spliterator, list, depth - 1);
+        } else {
+            spliterator.forEachRemaining(list::add);
+        }
+    }
+
+    private static <E> List<E> drain(Iterator<E> iterator) {
+        List<E> list = new ArrayList<>();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+}
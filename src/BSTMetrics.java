@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Operation metrics of a BST, collected once BST.enableMetrics() is called.
+ *
+ * For add, remove, get and contains this records the number of calls, the
+ * total number of compareTo calls, a histogram of the search-path depth (the
+ * nodes visited, including the walk to the successor in remove) and a
+ * histogram of the latency in nanoseconds. BST compares with compareTo
+ * alone, so there are no equals calls to count. Calls rejected before the
+ * search starts (null data, an empty tree in get or remove) are not
+ * recorded; searches that end in NoSuchElementException are.
+ *
+ * Histograms are log-linear: values below 16 get a bucket each, and every
+ * power-of-two range above that is split into 8 buckets, so a percentile is
+ * reported as the upper bound of its bucket, at most 12.5% above the true
+ * value. Like BST, this class is not thread-safe.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class BSTMetrics {
+
+    /**
+     * The recorded operations.
+     */
+    public enum Operation {
+        ADD, REMOVE, GET, CONTAINS
+    }
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = LINEAR + (Long.SIZE - 1 - 4) * SUB_BUCKETS;
+    private static final int OPERATIONS = Operation.values().length;
+
+    private final long[] calls = new long[OPERATIONS];
+    private final long[] comparisons = new long[OPERATIONS];
+    private final long[][] depths = new long[OPERATIONS][BUCKETS];
+    private final long[][] latencies = new long[OPERATIONS][BUCKETS];
+
+    /**
+     * Records one call.
+     *
+     * @param operation   the operation
+     * @param comparisons the compareTo calls it made
+     * @param depth       the nodes it visited
+     * @param nanos       how long it took
+     */
+    void record(Operation operation, int comparisons, int depth, long nanos) {
+        int op = operation.ordinal();
+        calls[op]++;
+        this.comparisons[op] += comparisons;
+        depths[op][bucket(depth)]++;
+        latencies[op][bucket(Math.max(nanos, 0))]++;
+    }
+
+    /**
+     * Returns the histogram bucket of a non-negative value.
+     *
+     * @param value the value
+     * @return the index of its bucket
+     */
+    static int bucket(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the upper bound of the bucket
+     */
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        long sub = (bucket - LINEAR) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+
+    private static long percentile(long[] histogram, long total, double p) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= Math.max(rank, 1)) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private static void checkPercentile(double p) {
+        if (!(p >= 0 && p <= 100)) {
+            throw new java.lang.IllegalArgumentException("percentile must be between 0 and 100");
+        }
+    }
+
+    /**
+     * Returns the number of recorded calls of an operation.
+     *
+     * @param operation the operation
+     * @return the number of calls
+     */
+    public long calls(Operation operation) {
+        return calls[operation.ordinal()];
+    }
+
+    /**
+     * Returns the total number of compareTo calls made by an operation.
+     *
+     * @param operation the operation
+     * @return the number of comparisons
+     */
+    public long comparisons(Operation operation) {
+        return comparisons[operation.ordinal()];
+    }
+
+    /**
+     * Returns the given percentile of the search-path depth of an operation.
+     *
+     * @param operation the operation
+     * @param p         the percentile, from 0 to 100
+     * @return the upper bound of the bucket holding the percentile, or 0 if
+     * nothing has been recorded
+     * @throws java.lang.IllegalArgumentException if p is not in [0, 100]
+     */
+    public long depthPercentile(Operation operation, double p) {
+        checkPercentile(p);
+        int op = operation.ordinal();
+        return percentile(depths[op], calls[op], p);
+    }
+
+    /**
+     * Returns the given percentile of the latency of an operation.
+     *
+     * @param operation the operation
+     * @param p         the percentile, from 0 to 100
+     * @return the upper bound in nanoseconds of the bucket holding the
+     * percentile, or 0 if nothing has been recorded
+     * @throws java.lang.IllegalArgumentException if p is not in [0, 100]
+     */
+    public long latencyPercentile(Operation operation, double p) {
+        checkPercentile(p);
+        int op = operation.ordinal();
+        return percentile(latencies[op], calls[op], p);
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+        for (int op = 0; op < OPERATIONS; op++) {
+            calls[op] = 0;
+            comparisons[op] = 0;
+            Arrays.fill(depths[op], 0);
+            Arrays.fill(latencies[op], 0);
+        }
+    }
+
+    /**
+     * Exports a snapshot as plain text. The first line is a header and each
+     * operation gets one whitespace-separated summary line, followed by one
+     * line per non-empty histogram bucket:
+     *
+     * <pre>
+     * operation calls comparisons depth_p50 depth_p99 latency_p50_ns latency_p99_ns
+     * add 1000 9976 10 15 95 223
+     * add depth 8..8 130
+     * add latency_ns 80..87 412
+     * </pre>
+     *
+     * @return the snapshot
+     */
+    public String export() {
+        StringBuilder builder = new StringBuilder(
+                "operation calls comparisons depth_p50 depth_p99 latency_p50_ns latency_p99_ns\n");
+        for (Operation operation : Operation.values()) {
+            String name = operation.name().toLowerCase(Locale.ROOT);
+            builder.append(name).append(' ').append(calls(operation))
+                    .append(' ').append(comparisons(operation))
+                    .append(' ').append(depthPercentile(operation, 50))
+                    .append(' ').append(depthPercentile(operation, 99))
+                    .append(' ').append(latencyPercentile(operation, 50))
+                    .append(' ').append(latencyPercentile(operation, 99)).append('\n');
+            appendHistogram(builder, name + " depth", depths[operation.ordinal()]);
+            appendHistogram(builder, name + " latency_ns", latencies[operation.ordinal()]);
+        }
+        return builder.toString();
+    }
+
+    private static void appendHistogram(StringBuilder builder, String label, long[] histogram) {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (histogram[i] != 0) {
+                long low = i == 0 ? 0 : upperBound(i - 1) + 1;
+                builder.append(label).append(' ').append(low).append("..").append(upperBound(i))
+                        .append(' ').append(histogram[i]).append('\n');
+            }
+        }
+    }
+}
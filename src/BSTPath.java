@@ -0,0 +1,159 @@
+import java.util.Arrays;
+
+/**
+ * Stack of the nodes from the root of a BST down to some node, each with
+ * the open range of data its subtree can hold.
+ *
+ * The range of the root is unbounded; the left child of a node is bounded
+ * above by the data of the node, and the right child below. So when the
+ * next operation is near the last one, it can pop back just to the lowest
+ * node whose range covers its data and search on from there instead of from
+ * the root, and any node it reaches is the one a search from the root would
+ * have reached. This is what the batch operations and Cursor of BST share.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+class BSTPath<T extends Comparable<? super T>> {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private BSTNode<?>[] nodes = new BSTNode<?>[INITIAL_CAPACITY];
+    // The exclusive bounds of the range of each node; null is unbounded.
+    private Object[] lows = new Object[INITIAL_CAPACITY];
+    private Object[] highs = new Object[INITIAL_CAPACITY];
+    private int depth;
+
+    /**
+     * Pushes a node with the given range.
+     *
+     * @param node the node
+     * @param low  the exclusive low bound of its range, or null
+     * @param high the exclusive high bound of its range, or null
+     */
+    void push(BSTNode<T> node, T low, T high) {
+        if (depth == nodes.length) {
+            nodes = Arrays.copyOf(nodes, depth * 2);
+            lows = Arrays.copyOf(lows, depth * 2);
+            highs = Arrays.copyOf(highs, depth * 2);
+        }
+        nodes[depth] = node;
+        lows[depth] = low;
+        highs[depth] = high;
+        depth++;
+    }
+
+    /**
+     * Pushes the root of a tree, whose range is unbounded.
+     *
+     * @param root the root
+     */
+    void pushRoot(BSTNode<T> root) {
+        push(root, null, null);
+    }
+
+    /**
+     * Pushes a child of the top node, narrowing the range by its data.
+     *
+     * @param left true for the left child, false for the right child
+     * @return the child, or null if there is none, in which case nothing is
+     * pushed
+     */
+    BSTNode<T> pushChild(boolean left) {
+        BSTNode<T> node = top();
+        BSTNode<T> child = left ? node.getLeft() : node.getRight();
+        if (child != null) {
+            if (left) {
+                push(child, low(), node.getData());
+            } else {
+                push(child, node.getData(), high());
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Removes and returns the top node.
+     *
+     * @return the node that was on top
+     */
+    BSTNode<T> pop() {
+        BSTNode<T> node = top();
+        depth--;
+        nodes[depth] = null;
+        lows[depth] = null;
+        highs[depth] = null;
+        return node;
+    }
+
+    /**
+     * Returns the top node.
+     *
+     * @return the node on top
+     */
+    @SuppressWarnings("unchecked")
+    BSTNode<T> top() {
+        return (BSTNode<T>) nodes[depth - 1];
+    }
+
+    /**
+     * Returns the node at the given depth.
+     *
+     * @param index the depth, 0 for the root
+     * @return the node at that depth
+     */
+    @SuppressWarnings("unchecked")
+    BSTNode<T> node(int index) {
+        return (BSTNode<T>) nodes[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private T low() {
+        return (T) lows[depth - 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    private T high() {
+        return (T) highs[depth - 1];
+    }
+
+    /**
+     * Returns whether the data lies in the range of the top node, so that a
+     * search for it from the top node ends where one from the root would.
+     *
+     * @param data the data
+     * @return true if the top node covers the data
+     */
+    boolean covers(T data) {
+        T low = low();
+        T high = high();
+        return (low == null || data.compareTo(low) > 0) && (high == null || data.compareTo(high) < 0);
+    }
+
+    /**
+     * Returns the number of nodes on the path.
+     *
+     * @return the depth of the top node plus one, or 0 if the path is empty
+     */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns whether the path is empty.
+     *
+     * @return true if there are no nodes on the path
+     */
+    boolean isEmpty() {
+        return depth == 0;
+    }
+
+    /**
+     * Empties the path.
+     */
+    void clear() {
+        while (depth > 0) {
+            pop();
+        }
+    }
+}
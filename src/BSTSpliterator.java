@@ -0,0 +1,118 @@
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the data of a BST in sorted order that splits at subtree
+ * boundaries.
+ *
+ * A spliterator covers an optional first data, then the whole subtree rooted
+ * at the pending node, then whatever is left on its in-order stack. Splitting
+ * hands the first data and the left subtree of the pending node to the
+ * prefix and keeps the pending node and its right subtree, so each split
+ * halves the remaining work of a balanced tree without visiting any node.
+ *
+ * Splitting stops once traversal has started. The tree must not be modified
+ * while the spliterator is in use.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+class BSTSpliterator<T extends Comparable<? super T>> implements Spliterator<T> {
+
+    private T first;
+    private BSTNode<T> pending;
+    private final Deque<BSTNode<T>> stack = new ArrayDeque<>();
+    private long estimate;
+    private boolean exact;
+
+    /**
+     * Constructs a spliterator over every node in the subtree.
+     *
+     * @param root the root of the subtree
+     * @param size the exact number of nodes in the subtree
+     */
+    BSTSpliterator(BSTNode<T> root, int size) {
+        this(null, root, size, true);
+    }
+
+    private BSTSpliterator(T first, BSTNode<T> pending, long estimate, boolean exact) {
+        this.first = first;
+        this.pending = pending;
+        this.estimate = estimate;
+        this.exact = exact;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        T data;
+        if (first != null) {
+            data = first;
+            first = null;
+        } else {
+            if (pending != null) {
+                pushLeft(pending);
+                pending = null;
+            }
+            if (stack.isEmpty()) {
+                return false;
+            }
+            BSTNode<T> node = stack.pop();
+            pushLeft(node.getRight());
+            data = node.getData();
+        }
+        if (estimate > 0) {
+            estimate--;
+        }
+        action.accept(data);
+        return true;
+    }
+
+    private void pushLeft(BSTNode<T> node) {
+        while (node != null) {
+            stack.push(node);
+            node = node.getLeft();
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (pending == null) {
+            return null;
+        }
+        if (first == null && pending.getLeft() == null) {
+            first = pending.getData();
+            pending = pending.getRight();
+            if (pending == null) {
+                return null;
+            }
+        }
+        long prefixEstimate = estimate >>> 1;
+        Spliterator<T> prefix = new BSTSpliterator<>(first, pending.getLeft(), prefixEstimate, false);
+        first = pending.getData();
+        pending = pending.getRight();
+        estimate -= prefixEstimate;
+        exact = false;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = ORDERED | SORTED | DISTINCT | NONNULL;
+        return exact ? characteristics | SIZED : characteristics;
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return null;
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of decoded pages with clock eviction, used by
+ * PagedBPlusTree.
+ *
+ * Every frame holds one page, a pin count, a reference bit and a dirty bit.
+ * fetch() pins a page, reading it from storage on a miss; callers unpin it
+ * once they no longer hold the page, marking it dirty if they changed it.
+ * To make room, the clock hand sweeps the frames: pinned frames are
+ * skipped, referenced frames lose their bit and get another turn, and the
+ * first frame found unreferenced is evicted, written back first if it is
+ * dirty. Recently used pages thus stay in memory, approximating LRU without
+ * reordering anything on a hit.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ * @param <P> the type of the decoded pages
+ */
+class BufferPool<P> {
+
+    /**
+     * Where the pages are read from and written back to.
+     *
+     * @param <P> the type of the decoded pages
+     */
+    interface Storage<P> {
+
+        /**
+         * Reads and decodes a page.
+         *
+         * @param pageId the page to read
+         * @return the decoded page
+         * @throws java.io.IOException if the page cannot be read
+         */
+        P read(int pageId) throws IOException;
+
+        /**
+         * Encodes and writes a page.
+         *
+         * @param pageId the page to write
+         * @param page   the decoded page
+         * @throws java.io.IOException if the page cannot be written
+         */
+        void write(int pageId, P page) throws IOException;
+    }
+
+    private static final int NONE = -1;
+
+    private final Storage<P> storage;
+    private final Object[] pages;
+    private final int[] pageIds;
+    private final int[] pins;
+    private final boolean[] referenced;
+    private final boolean[] dirty;
+    private final Map<Integer, Integer> frames = new HashMap<>();
+    private int used;
+    private int hand;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs an empty pool.
+     *
+     * @param storage  where pages come from
+     * @param capacity the number of frames
+     */
+    BufferPool(Storage<P> storage, int capacity) {
+        this.storage = storage;
+        pages = new Object[capacity];
+        pageIds = new int[capacity];
+        Arrays.fill(pageIds, NONE);
+        pins = new int[capacity];
+        referenced = new boolean[capacity];
+        dirty = new boolean[capacity];
+    }
+
+    /**
+     * Returns a page, pinned.
+     *
+     * @param pageId the page to fetch
+     * @return the page
+     * @throws java.io.UncheckedIOException     if the page cannot be read, or
+     *                                          the evicted page written
+     * @throws java.lang.IllegalStateException  if every frame is pinned
+     */
+    @SuppressWarnings("unchecked")
+    P fetch(int pageId) {
+        Integer frame = frames.get(pageId);
+        if (frame != null) {
+            hits++;
+            pins[frame]++;
+            referenced[frame] = true;
+            return (P) pages[frame];
+        }
+        misses++;
+        int victim = victim();
+        try {
+            place(victim, pageId, storage.read(pageId), false);
+        } catch (IOException e) {
+            // The frame holds no page, so a later eviction must not unmap a live one.
+            pageIds[victim] = NONE;
+            throw new UncheckedIOException("cannot read page " + pageId, e);
+        }
+        return (P) pages[victim];
+    }
+
+    /**
+     * Adds a newly created page, pinned and dirty.
+     *
+     * @param pageId the id of the new page
+     * @param page   the page
+     * @throws java.io.UncheckedIOException    if the evicted page cannot be
+     *                                         written
+     * @throws java.lang.IllegalStateException if every frame is pinned
+     */
+    void create(int pageId, P page) {
+        place(victim(), pageId, page, true);
+    }
+
+    private void place(int frame, int pageId, P page, boolean isDirty) {
+        pages[frame] = page;
+        pageIds[frame] = pageId;
+        pins[frame] = 1;
+        referenced[frame] = true;
+        dirty[frame] = isDirty;
+        frames.put(pageId, frame);
+    }
+
+    /**
+     * Releases one pin of a page.
+     *
+     * @param pageId  the page
+     * @param changed true if the caller modified the page
+     */
+    void unpin(int pageId, boolean changed) {
+        int frame = frames.get(pageId);
+        pins[frame]--;
+        dirty[frame] |= changed;
+    }
+
+    /**
+     * Finds a frame for a new page, evicting a page if the pool is full.
+     *
+     * @return the free frame
+     */
+    private int victim() {
+        if (used < pages.length) {
+            return used++;
+        }
+        for (int step = 0; step < 2 * pages.length; step++) {
+            int frame = hand;
+            hand = (hand + 1) % pages.length;
+            if (pins[frame] > 0) {
+                continue;
+            } else if (referenced[frame]) {
+                referenced[frame] = false;
+                continue;
+            }
+            writeBack(frame);
+            frames.remove(pageIds[frame]);
+            pages[frame] = null;
+            pageIds[frame] = NONE;
+            return frame;
+        }
+        throw new java.lang.IllegalStateException("every page in the buffer pool is pinned");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeBack(int frame) {
+        if (dirty[frame]) {
+            try {
+                storage.write(pageIds[frame], (P) pages[frame]);
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot write page " + pageIds[frame], e);
+            }
+            dirty[frame] = false;
+        }
+    }
+
+    /**
+     * Writes every dirty page back to storage. The pages stay cached.
+     *
+     * @throws java.io.IOException if a page cannot be written
+     */
+    void flush() throws IOException {
+        try {
+            for (int frame = 0; frame < used; frame++) {
+                if (pageIds[frame] != NONE) {
+                    writeBack(frame);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the number of frames whose page is pinned.
+     *
+     * @return the number of pinned frames
+     */
+    int pinned() {
+        int pinned = 0;
+        for (int frame = 0; frame < used; frame++) {
+            if (pins[frame] > 0) {
+                pinned++;
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Returns the number of fetches served from memory.
+     *
+     * @return the number of hits
+     */
+    long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of fetches that had to read storage.
+     *
+     * @return the number of misses
+     */
+    long misses() {
+        return misses;
+    }
+}
@@ -0,0 +1,64 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for BufferPool.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class BufferPoolTest {
+
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * Storage whose pages are fresh arrays holding their id, and which fails
+     * to read one chosen page.
+     */
+    private static final class FlakyStorage implements BufferPool.Storage<int[]> {
+        private final int failing;
+
+        private FlakyStorage(int failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public int[] read(int pageId) throws IOException {
+            if (pageId == failing) {
+                throw new IOException("cannot read page " + pageId);
+            }
+            return new int[] {pageId};
+        }
+
+        @Override
+        public void write(int pageId, int[] page) {
+            assertEquals(pageId, page[0]);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFailedReadLeavesNoStaleMapping() {
+        BufferPool<int[]> pool = new BufferPool<>(new FlakyStorage(1), 2);
+        try {
+            pool.fetch(1);
+            fail("read of a failing page succeeded");
+        } catch (UncheckedIOException e) {
+            assertEquals(1, pool.misses());
+        }
+        int[] page = pool.fetch(0);
+        pool.unpin(0, true);
+
+        // Evicting the frame of the failed read must leave page 0 mapped.
+        pool.fetch(2);
+        pool.unpin(2, false);
+        assertSame(page, pool.fetch(0));
+        assertEquals(1, pool.hits());
+        assertEquals(3, pool.misses());
+    }
+}
@@ -0,0 +1,287 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe variant of the BST for read-heavy workloads.
+ *
+ * Writers (add, remove and clear) take the write lock of a StampedLock and
+ * mutate the tree exactly like BST does. Readers (get and contains) descend
+ * under an optimistic stamp without writing to any shared memory, then
+ * validate the stamp; only if a writer got in the way do they retry under
+ * the read lock. Every operation is therefore linearizable: a successful
+ * optimistic read behaves as if it ran at the moment it validated.
+ *
+ * The racy descent is safe because the node fields are volatile, so a
+ * reader never sees a half-constructed node, and because every mutation
+ * only relinks a node to one of its own descendants, so the tree never
+ * contains a cycle and a descent always terminates.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class ConcurrentBST<T extends Comparable<? super T>> {
+
+    /**
+     * How many optimistic attempts a reader makes before it falls back to the
+     * read lock.
+     */
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Node<T> root;
+    private volatile int size;
+
+    /**
+     * Node of the concurrent tree. Every field is volatile so that readers
+     * descending without a lock see fully initialized nodes.
+     */
+    private static final class Node<T> {
+        private volatile T data;
+        private volatile Node<T> left;
+        private volatile Node<T> right;
+
+        Node(T data) {
+            this.data = data;
+        }
+    }
+
+    /**
+     * Adds the data to the tree. If the data is already in the tree, then
+     * nothing is done.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot add null data into BST");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (root == null) {
+                root = new Node<>(data);
+                size++;
+                return;
+            }
+            Node<T> node = root;
+            while (true) {
+                int compare = data.compareTo(node.data);
+                if (compare < 0) {
+                    if (node.left == null) {
+                        node.left = new Node<>(data);
+                        size++;
+                        return;
+                    }
+                    node = node.left;
+                } else if (compare > 0) {
+                    if (node.right == null) {
+                        node.right = new Node<>(data);
+                        size++;
+                        return;
+                    }
+                    node = node.right;
+                } else {
+                    return;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given parameter.
+     * A node with two children is replaced by its successor.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot remove null data");
+        }
+        long stamp = lock.writeLock();
+        try {
+            Node<T> parent = null;
+            Node<T> node = root;
+            while (node != null) {
+                int compare = data.compareTo(node.data);
+                if (compare == 0) {
+                    break;
+                }
+                parent = node;
+                node = compare < 0 ? node.left : node.right;
+            }
+            if (node == null) {
+                throw new java.util.NoSuchElementException("cannot remove data if data is not in BST");
+            }
+            T removed = node.data;
+            if (node.left != null && node.right != null) {
+                Node<T> successorParent = node;
+                Node<T> successor = node.right;
+                while (successor.left != null) {
+                    successorParent = successor;
+                    successor = successor.left;
+                }
+                node.data = successor.data;
+                if (successorParent == node) {
+                    successorParent.right = successor.right;
+                } else {
+                    successorParent.left = successor.right;
+                }
+            } else {
+                Node<T> child = node.left == null ? node.right : node.left;
+                if (parent == null) {
+                    root = child;
+                } else if (parent.left == node) {
+                    parent.left = child;
+                } else {
+                    parent.right = child;
+                }
+            }
+            size--;
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot get data if data is null");
+        }
+        T found = find(data);
+        if (found == null) {
+            throw new java.util.NoSuchElementException("cannot get data if data is not in BST");
+        }
+        return found;
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("BST doesn't contain null data");
+        }
+        return find(data) != null;
+    }
+
+    /**
+     * Looks the data up optimistically, falling back to the read lock when
+     * writers keep invalidating the stamp.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter, or null
+     */
+    private T find(T data) {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                T found = descend(data);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return descend(data);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private T descend(T data) {
+        Node<T> node = root;
+        while (node != null) {
+            T nodeData = node.data;
+            int compare = data.compareTo(nodeData);
+            if (compare == 0) {
+                return nodeData;
+            }
+            node = compare < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Generate an in-order traversal of the tree from a consistent view,
+     * taken under the read lock.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        long stamp = lock.readLock();
+        try {
+            List<T> list = new ArrayList<>(size);
+            Deque<Node<T>> stack = new ArrayDeque<>();
+            Node<T> node = root;
+            while (node != null || !stack.isEmpty()) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+                node = stack.pop();
+                list.add(node.data);
+                node = node.right;
+            }
+            return list;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            root = null;
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the size of the tree at the moment of the call.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
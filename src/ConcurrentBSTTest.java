@@ -0,0 +1,130 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit and multi-threaded stress tests for ConcurrentBST.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class ConcurrentBSTTest {
+
+    private static final int TIMEOUT = 200;
+    private static final int STRESS_TIMEOUT = 20000;
+    private ConcurrentBST<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new ConcurrentBST<>();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSingleThreaded() {
+        Integer temp = 2;
+        tree.add(1);
+        tree.add(0);
+        tree.add(temp);
+        tree.add(3);
+
+        assertEquals(4, tree.size());
+        assertSame(temp, tree.get(2));
+        assertTrue(tree.contains(3));
+        assertSame(temp, tree.remove(2));
+        assertFalse(tree.contains(2));
+        assertEquals(List.of(0, 1, 3), tree.inorder());
+        tree.clear();
+        assertEquals(0, tree.size());
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() {
+        tree.add(1);
+        tree.remove(2);
+    }
+
+    @Test(timeout = STRESS_TIMEOUT)
+    public void testConcurrentWritersAndReaders() throws InterruptedException {
+        int writers = 4;
+        int readers = 4;
+        int keysPerWriter = 2000;
+        int stable = -1;
+        tree.add(stable);
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    Random random = new Random(id);
+                    for (int i = 0; i < keysPerWriter; i++) {
+                        int key = random.nextInt(keysPerWriter) * writers + id;
+                        tree.add(key);
+                        assertTrue(tree.contains(key));
+                        if (random.nextBoolean()) {
+                            assertEquals((Integer) key, tree.remove(key));
+                            assertFalse(tree.contains(key));
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        for (int r = 0; r < readers; r++) {
+            int id = r;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    Random random = new Random(-id);
+                    while (!done.get()) {
+                        assertTrue(tree.contains(stable));
+                        tree.contains(random.nextInt(keysPerWriter * writers));
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads.subList(0, writers)) {
+            thread.join();
+        }
+        done.set(true);
+        for (Thread thread : threads.subList(writers, threads.size())) {
+            thread.join();
+        }
+        assertNull(failure.get());
+
+        List<Integer> inorder = tree.inorder();
+        assertEquals(tree.size(), inorder.size());
+        for (int i = 1; i < inorder.size(); i++) {
+            assertTrue(inorder.get(i - 1) < inorder.get(i));
+        }
+        for (Integer key : inorder) {
+            assertTrue(tree.contains(key));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+import java.util.Arrays;
+
+/**
+ * BST of primitive double keys that never boxes.
+ *
+ * Keys are stored in a double[] parallel to the child index arrays of
+ * PrimitiveBST, so add, remove and contains compare primitives directly and
+ * contains allocates nothing. Keys are ordered by Double.compare, so -0.0
+ * sorts before 0.0 and NaN is a single key larger than every other.
+ * Traversals return double[].
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class DoubleBST extends PrimitiveBST {
+
+    private double[] keys;
+
+    /**
+     * Constructs an empty tree.
+     */
+    public DoubleBST() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty tree with room for the given number of keys before
+     * the arrays have to grow.
+     *
+     * @param initialCapacity the number of keys to reserve space for
+     * @throws java.lang.IllegalArgumentException if initialCapacity < 0
+     */
+    public DoubleBST(int initialCapacity) {
+        super(initialCapacity);
+        keys = new double[left.length];
+    }
+
+    @Override
+    void resizeKeys(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    @Override
+    void copyKey(int from, int to) {
+        keys[to] = keys[from];
+    }
+
+    /**
+     * Adds the key to the tree. If the key is already in the tree, then
+     * nothing is done.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param key the key to add
+     */
+    public void add(double key) {
+        if (root == NIL) {
+            root = allocate();
+            keys[root] = key;
+            return;
+        }
+        int slot = root;
+        while (true) {
+            int compare = Double.compare(key, keys[slot]);
+            if (compare < 0) {
+                if (left[slot] == NIL) {
+                    int child = allocate();
+                    keys[child] = key;
+                    left[slot] = child;
+                    return;
+                }
+                slot = left[slot];
+            } else if (compare > 0) {
+                if (right[slot] == NIL) {
+                    int child = allocate();
+                    keys[child] = key;
+                    right[slot] = child;
+                    return;
+                }
+                slot = right[slot];
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the key from the tree.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param key the key to remove
+     * @return the key that was removed
+     * @throws java.util.NoSuchElementException if the key is not in the tree
+     */
+    public double remove(double key) {
+        int parent = NIL;
+        int slot = root;
+        while (slot != NIL) {
+            int compare = Double.compare(key, keys[slot]);
+            if (compare == 0) {
+                double removed = keys[slot];
+                unlink(parent, slot);
+                return removed;
+            }
+            parent = slot;
+            slot = compare < 0 ? left[slot] : right[slot];
+        }
+        throw new java.util.NoSuchElementException("cannot remove key if key is not in BST");
+    }
+
+    /**
+     * Returns whether or not the key is contained within the tree.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param key the key to search for
+     * @return true if the key is in the tree, false otherwise
+     */
+    public boolean contains(double key) {
+        int slot = root;
+        while (slot != NIL) {
+            int compare = Double.compare(key, keys[slot]);
+            if (compare == 0) {
+                return true;
+            }
+            slot = compare < 0 ? left[slot] : right[slot];
+        }
+        return false;
+    }
+
+    /**
+     * Generate a pre-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the preorder traversal of the tree
+     */
+    public double[] preorder() {
+        return keysOf(preorderSlots());
+    }
+
+    /**
+     * Generate an in-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public double[] inorder() {
+        return keysOf(inorderSlots());
+    }
+
+    /**
+     * Generate a post-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the postorder traversal of the tree
+     */
+    public double[] postorder() {
+        return keysOf(postorderSlots());
+    }
+
+    /**
+     * Generate a level-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the level order traversal of the tree
+     */
+    public double[] levelorder() {
+        return keysOf(levelorderSlots());
+    }
+
+    /**
+     * Finds and retrieves the k-largest keys from the tree in sorted order,
+     * least to greatest.
+     *
+     * Must be O(log(n) + k) for a balanced tree and O(n + k) for worst case.
+     *
+     * @param k the number of largest keys to return
+     * @return sorted array consisting of the k largest keys
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of keys in the tree
+     */
+    public double[] kLargest(int k) {
+        return keysOf(kLargestSlots(k));
+    }
+
+    private double[] keysOf(int[] slots) {
+        double[] result = new double[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            result[i] = keys[slots[i]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,285 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * BST whose mutations survive a crash.
+ *
+ * A durable tree lives in a directory holding a snapshot (written by
+ * BST.save) and a write-ahead log of every add and remove made since. Each
+ * mutation is applied in memory, appended to the log, and returns once the
+ * log is on disk. Concurrent mutations share their fsyncs through group
+ * commit (see WriteAheadLog), so throughput grows with the number of
+ * writing threads; the commit delay bounds how long a mutation may wait
+ * for others to join its batch.
+ *
+ * open() loads the snapshot and replays the log over it. checkpoint()
+ * writes a fresh snapshot and empties the log, which keeps replay short.
+ * Replaying an add of a present key or a remove of a missing key does
+ * nothing, so a crash between the two steps of a checkpoint is harmless.
+ *
+ * Reads see mutations as soon as they are applied, which may be before
+ * they are durable. All methods are thread-safe.
+ *
+ * If writing the log ever fails, the tree fails with it: the mutations of
+ * the failed batch are already in memory but will not survive a restart,
+ * so from then on mutations and checkpoints throw IOException without
+ * changing anything and reads throw IllegalStateException. Reopening the
+ * directory recovers the tree as of its last durable mutation.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ * @param <T> the type of data in the tree
+ */
+public class DurableBST<T extends Comparable<? super T>> implements AutoCloseable {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String LOG = "wal";
+
+    private final Path directory;
+    private final KeyCodec<T> codec;
+    private final BST<T> tree;
+    private final WriteAheadLog<T> log;
+
+    private DurableBST(Path directory, KeyCodec<T> codec, BST<T> tree, WriteAheadLog<T> log) {
+        this.directory = directory;
+        this.codec = codec;
+        this.tree = tree;
+        this.log = log;
+    }
+
+    /**
+     * Throws if the log has failed, so that a mutation or checkpoint is not
+     * applied on top of mutations that were never made durable.
+     *
+     * @throws java.io.IOException if the log has failed
+     */
+    private void checkLog() throws IOException {
+        IOException failure = log.failure();
+        if (failure != null) {
+            throw new IOException("write-ahead log failed; reopen the tree to recover", failure);
+        }
+    }
+
+    /**
+     * Throws if the log has failed, so that reads do not serve mutations
+     * that were never made durable.
+     *
+     * @throws java.lang.IllegalStateException if the log has failed
+     */
+    private void checkReadable() {
+        IOException failure = log.failure();
+        if (failure != null) {
+            throw new java.lang.IllegalStateException("write-ahead log failed; reopen the tree to recover",
+                    failure);
+        }
+    }
+
+    /**
+     * Opens the durable tree in the directory, creating the directory if it
+     * does not exist.
+     *
+     * @param directory   the directory of the snapshot and the log
+     * @param codec       the encoding of the data
+     * @param commitDelay how long a group commit waits for more mutations
+     *                    before it forces the log to disk; zero syncs at
+     *                    once
+     * @param <T>         the type of data in the tree
+     * @return the tree as of the last durable mutation
+     * @throws java.lang.IllegalArgumentException if any parameter is null or
+     *                                            commitDelay is negative
+     * @throws java.io.IOException                if the directory cannot be
+     *                                            read or the snapshot is
+     *                                            invalid
+     */
+    public static <T extends Comparable<? super T>> DurableBST<T> open(Path directory, KeyCodec<T> codec,
+            Duration commitDelay) throws IOException {
+        if (directory == null || codec == null || commitDelay == null) {
+            throw new java.lang.IllegalArgumentException("cannot open DurableBST with null parameters");
+        } else if (commitDelay.isNegative()) {
+            throw new java.lang.IllegalArgumentException("commit delay cannot be negative");
+        }
+        Files.createDirectories(directory);
+        Path snapshot = directory.resolve(SNAPSHOT);
+        BST<T> tree = Files.exists(snapshot) ? BST.load(snapshot, codec) : new BST<>();
+        Path logFile = directory.resolve(LOG);
+        WriteAheadLog.replay(logFile, codec, (operation, data) -> {
+            if (operation == WriteAheadLog.ADD) {
+                tree.add(data);
+            } else if (tree.contains(data)) {
+                tree.remove(data);
+            }
+        });
+        return new DurableBST<>(directory, codec, tree,
+                new WriteAheadLog<>(logFile, codec, commitDelay.toNanos()));
+    }
+
+    /**
+     * Adds the data to the tree and returns once the addition is durable.
+     * Adding data that is already present appends nothing to the log.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case,
+     * plus the wait for the log.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.io.IOException                if the log cannot be written,
+     *                                            now or earlier
+     */
+    public void add(T data) throws IOException {
+        long sequence;
+        synchronized (tree) {
+            checkLog();
+            int before = tree.size();
+            tree.add(data);
+            // Data that is already present may still be waiting for its own sync.
+            sequence = tree.size() == before ? log.lastSequence() : log.append(WriteAheadLog.ADD, data);
+        }
+        log.sync(sequence);
+    }
+
+    /**
+     * Removes the data from the tree and returns it once the removal is
+     * durable.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case,
+     * plus the wait for the log.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     * @throws java.io.IOException                if the log cannot be written,
+     *                                            now or earlier
+     */
+    public T remove(T data) throws IOException {
+        T removed;
+        long sequence;
+        synchronized (tree) {
+            checkLog();
+            removed = tree.remove(data);
+            sequence = log.append(WriteAheadLog.REMOVE, removed);
+        }
+        log.sync(sequence);
+        return removed;
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     * @throws java.lang.IllegalStateException    if the log has failed
+     */
+    public T get(T data) {
+        synchronized (tree) {
+            checkReadable();
+            return tree.get(data);
+        }
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.lang.IllegalStateException    if the log has failed
+     */
+    public boolean contains(T data) {
+        synchronized (tree) {
+            checkReadable();
+            return tree.contains(data);
+        }
+    }
+
+    /**
+     * Generate an in-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the data in sorted order
+     * @throws java.lang.IllegalStateException if the log has failed
+     */
+    public List<T> inorder() {
+        synchronized (tree) {
+            checkReadable();
+            return tree.inorder();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the tree and empties the log. Mutations wait
+     * while the snapshot is written.
+     *
+     * The snapshot goes to a temporary file that then replaces the old one,
+     * so a crash leaves either the old or the new snapshot in place, and the
+     * log is only emptied afterwards.
+     *
+     * Must be O(n).
+     *
+     * @throws java.io.IOException if the snapshot or the log cannot be
+     *                             written, or the log failed earlier
+     */
+    public void checkpoint() throws IOException {
+        synchronized (tree) {
+            checkLog();
+            Path temporary = directory.resolve(SNAPSHOT + ".tmp");
+            tree.save(temporary, codec);
+            Files.move(temporary, directory.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+            log.truncate();
+        }
+    }
+
+    /**
+     * Forces the rename of the snapshot to disk. Not every platform can open
+     * a directory; where it cannot, the rename is left to the file system.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The directory cannot be synced on this platform.
+        }
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     * @throws java.lang.IllegalStateException if the log has failed
+     */
+    public int size() {
+        synchronized (tree) {
+            checkReadable();
+            return tree.size();
+        }
+    }
+
+    /**
+     * Makes any pending mutations durable and closes the log.
+     *
+     * @throws java.io.IOException if the log cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (tree) {
+            log.close();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for DurableBST and its WriteAheadLog.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class DurableBSTTest {
+
+    private static final int TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = TIMEOUT)
+    public void testMutationsSurviveReopen() throws IOException {
+        Path directory = folder.getRoot().toPath().resolve("tree");
+        try (DurableBST<Integer> tree = DurableBST.open(directory, KeyCodec.INTEGER, Duration.ZERO)) {
+            for (int i : new int[] {5, 2, 8, 1, 3, 2}) {
+                tree.add(i);
+            }
+            assertEquals((Integer) 2, tree.remove(2));
+        }
+        try (DurableBST<Integer> tree = DurableBST.open(directory, KeyCodec.INTEGER, Duration.ZERO)) {
+            assertEquals(List.of(1, 3, 5, 8), tree.inorder());
+            tree.checkpoint();
+            assertEquals(0, Files.size(directory.resolve(DurableBST.LOG)));
+            tree.remove(8);
+            tree.add(9);
+        }
+        try (DurableBST<Integer> tree = DurableBST.open(directory, KeyCodec.INTEGER, Duration.ZERO)) {
+            assertEquals(List.of(1, 3, 5, 9), tree.inorder());
+            assertEquals((Integer) 3, tree.get(3));
+            assertFalse(tree.contains(8));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testReplayOverCheckpointIsIdempotent() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Path log = directory.resolve(DurableBST.LOG);
+        try (DurableBST<String> tree = DurableBST.open(directory, KeyCodec.STRING, Duration.ZERO)) {
+            tree.add("a");
+            tree.add("b");
+            tree.remove("a");
+            tree.add("a");
+            byte[] records = Files.readAllBytes(log);
+            tree.checkpoint();
+            // Put the log back, as if the process died right after the snapshot was renamed.
+            Files.write(log, records);
+        }
+        try (DurableBST<String> tree = DurableBST.open(directory, KeyCodec.STRING, Duration.ZERO)) {
+            assertEquals(List.of("a", "b"), tree.inorder());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTornTailIsDiscarded() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Path log = directory.resolve(DurableBST.LOG);
+        try (DurableBST<Long> tree = DurableBST.open(directory, KeyCodec.LONG, Duration.ZERO)) {
+            tree.add(1L);
+            tree.add(2L);
+        }
+        long valid = Files.size(log);
+        // A record cut short by a crash, then garbage that fails its CRC.
+        Files.write(log, new byte[] {0, 0, 0, 9, 1, 2, 3}, StandardOpenOption.APPEND);
+        try (DurableBST<Long> tree = DurableBST.open(directory, KeyCodec.LONG, Duration.ZERO)) {
+            assertEquals(List.of(1L, 2L), tree.inorder());
+            assertEquals(valid, Files.size(log));
+            tree.add(3L);
+        }
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(log, bytes);
+        try (DurableBST<Long> tree = DurableBST.open(directory, KeyCodec.LONG, Duration.ZERO)) {
+            assertEquals(List.of(1L, 2L), tree.inorder());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGroupCommitFromManyThreads() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        int threads = 8;
+        int perThread = 250;
+        List<Throwable> errors = new ArrayList<>();
+        try (DurableBST<Integer> tree = DurableBST.open(directory, KeyCodec.INTEGER, Duration.ofMillis(1))) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                Thread worker = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perThread; i++) {
+                            tree.add(offset + i);
+                            if (i % 5 == 0) {
+                                tree.remove(offset + i);
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < threads * perThread; i++) {
+            if (i % perThread % 5 != 0) {
+                expected.add(i);
+            }
+        }
+        try (DurableBST<Integer> tree = DurableBST.open(directory, KeyCodec.INTEGER, Duration.ZERO)) {
+            assertEquals(new ArrayList<>(expected), tree.inorder());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFailedLogStopsTheTree() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        DurableBST<Integer> tree = DurableBST.open(directory, KeyCodec.INTEGER, Duration.ZERO);
+        tree.add(1);
+        // Writing to the closed log fails the way a full or broken disk would.
+        tree.close();
+        try {
+            tree.add(2);
+            fail("add to a failed log succeeded");
+        } catch (ClosedChannelException e) {
+            assertTrue(e instanceof IOException);
+        }
+        try {
+            tree.contains(2);
+            fail("read from a failed tree succeeded");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        try {
+            tree.remove(1);
+            fail("remove from a failed log succeeded");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("reopen"));
+        }
+        try {
+            tree.checkpoint();
+            fail("checkpoint of a failed tree succeeded");
+        } catch (IOException e) {
+            assertFalse(Files.exists(directory.resolve(DurableBST.SNAPSHOT)));
+        }
+
+        try (DurableBST<Integer> reopened = DurableBST.open(directory, KeyCodec.INTEGER, Duration.ZERO)) {
+            assertEquals(List.of(1), reopened.inorder());
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissingWritesNothing() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableBST<Integer> tree = DurableBST.open(directory, KeyCodec.INTEGER, Duration.ZERO)) {
+            try {
+                tree.remove(1);
+            } finally {
+                assertEquals(0, Files.size(directory.resolve(DurableBST.LOG)));
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, array-laid-out search structure built by BST.freeze().
+ *
+ * The data is stored in Eytzinger (BFS) order: the root is at index 1 and
+ * the children of index i are at 2i and 2i + 1, with index 0 unused. There
+ * are no node objects and no child pointers, and the top levels of every
+ * search share the first few cache lines of one array, so lookups touch far
+ * fewer cache lines than a walk down BSTNode references.
+ *
+ * Searches run a fixed-shape descent that always goes all the way down:
+ * index 2i + (a[i] < x) is taken at every level, and the answer is recovered
+ * from the final index by cancelling the trailing right turns. Because the
+ * shape is implicit, the in-order neighbours of any index are found with
+ * arithmetic alone.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class FrozenBST<T extends Comparable<? super T>> {
+
+    private final Object[] tree;
+    private final int size;
+
+    /**
+     * Lays out the data in Eytzinger order.
+     *
+     * @param sorted the distinct data in ascending order
+     */
+    FrozenBST(Object[] sorted) {
+        size = sorted.length;
+        tree = new Object[size + 1];
+        fill(sorted, 0, 1);
+    }
+
+    private int fill(Object[] sorted, int position, int index) {
+        if (index <= size) {
+            position = fill(sorted, position, 2 * index);
+            tree[index] = sorted[position++];
+            position = fill(sorted, position, 2 * index + 1);
+        }
+        return position;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T at(int index) {
+        return (T) tree[index];
+    }
+
+    /**
+     * Returns the index of the least data greater than (or, if strict is
+     * false, equal to) the given data.
+     *
+     * @param data   the data to search for
+     * @param strict true to skip data equal to the parameter
+     * @return the index of the match, or 0 if there is none
+     */
+    private int lowerBound(T data, boolean strict) {
+        int index = 1;
+        while (index <= size) {
+            int compare = at(index).compareTo(data);
+            index = 2 * index + (compare < 0 || (strict && compare == 0) ? 1 : 0);
+        }
+        return index >>> (Integer.numberOfTrailingZeros(~index) + 1);
+    }
+
+    /**
+     * Returns the index of the in-order predecessor, or of the largest data if
+     * index is 0.
+     *
+     * @param index the index to step back from
+     * @return the index of the predecessor, or 0 if there is none
+     */
+    private int predecessor(int index) {
+        if (index == 0) {
+            return last();
+        } else if (2 * index <= size) {
+            index = 2 * index;
+            while (2 * index + 1 <= size) {
+                index = 2 * index + 1;
+            }
+            return index;
+        }
+        while ((index & 1) == 0) {
+            index >>>= 1;
+        }
+        return index >>> 1;
+    }
+
+    private int last() {
+        if (size == 0) {
+            return 0;
+        }
+        int index = 1;
+        while (2 * index + 1 <= size) {
+            index = 2 * index + 1;
+        }
+        return index;
+    }
+
+    private void checkData(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot search for null data");
+        }
+    }
+
+    /**
+     * Returns the data matching the given parameter.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the data in the structure equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not present
+     */
+    public T get(T data) {
+        checkData(data);
+        int index = lowerBound(data, false);
+        if (index == 0 || at(index).compareTo(data) != 0) {
+            throw new java.util.NoSuchElementException("cannot get data if data is not in BST");
+        }
+        return at(index);
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is present.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return true if the parameter is present, false otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        checkData(data);
+        int index = lowerBound(data, false);
+        return index != 0 && at(index).compareTo(data) == 0;
+    }
+
+    /**
+     * Returns the greatest data less than or equal to the given data.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the greatest data <= the parameter, or null if there is none
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public T floor(T data) {
+        checkData(data);
+        int index = predecessor(lowerBound(data, true));
+        return index == 0 ? null : at(index);
+    }
+
+    /**
+     * Returns the least data greater than or equal to the given data.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the least data >= the parameter, or null if there is none
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public T ceiling(T data) {
+        checkData(data);
+        int index = lowerBound(data, false);
+        return index == 0 ? null : at(index);
+    }
+
+    /**
+     * Finds and retrieves the k-largest elements in sorted order, least to
+     * greatest.
+     *
+     * Must be O(log(n) + k).
+     *
+     * @param k the number of largest elements to return
+     * @return sorted list consisting of the k largest elements
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of data in the structure
+     */
+    public List<T> kLargest(int k) {
+        if (k < 0 || k > size) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        }
+        List<T> list = new ArrayList<>(k);
+        int index = last();
+        for (int i = 0; i < k; i++) {
+            list.add(at(index));
+            index = predecessor(index);
+        }
+        Collections.reverse(list);
+        return list;
+    }
+
+    /**
+     * Generate an in-order traversal of the structure.
+     *
+     * Must be O(n).
+     *
+     * @return the data in sorted order
+     */
+    public List<T> inorder() {
+        List<T> list = new ArrayList<>(size);
+        int index = last();
+        while (index != 0) {
+            list.add(at(index));
+            index = predecessor(index);
+        }
+        Collections.reverse(list);
+        return list;
+    }
+
+    /**
+     * Returns the number of data in the structure.
+     *
+     * @return the size of the structure
+     */
+    public int size() {
+        return size;
+    }
+}
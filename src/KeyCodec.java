@@ -0,0 +1,128 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of the keys of a BST snapshot (see BST.save and BST.load).
+ *
+ * Keys are written one after the other with no separators, so a codec must
+ * be able to tell where a key ends from its own bytes.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ * @param <T> the type of the keys
+ */
+public interface KeyCodec<T> {
+
+    /**
+     * Returns the number of bytes write() will use for the key.
+     *
+     * @param key the key
+     * @return the encoded size of the key
+     */
+    int size(T key);
+
+    /**
+     * Writes the key at the position of the buffer and advances it.
+     *
+     * @param key    the key
+     * @param buffer the buffer, with at least size(key) bytes remaining
+     */
+    void write(T key, ByteBuffer buffer);
+
+    /**
+     * Reads a key at the position of the buffer and advances past it.
+     *
+     * @param buffer the buffer
+     * @return the key
+     * @throws java.nio.BufferUnderflowException if the buffer ends inside
+     *                                           the key
+     */
+    T read(ByteBuffer buffer);
+
+    /**
+     * Integer keys as 4 big-endian bytes.
+     */
+    KeyCodec<Integer> INTEGER = new KeyCodec<Integer>() {
+        @Override
+        public int size(Integer key) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(Integer key, ByteBuffer buffer) {
+            buffer.putInt(key);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    /**
+     * Long keys as 8 big-endian bytes.
+     */
+    KeyCodec<Long> LONG = new KeyCodec<Long>() {
+        @Override
+        public int size(Long key) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long key, ByteBuffer buffer) {
+            buffer.putLong(key);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    /**
+     * String keys as their UTF-8 length in 4 bytes followed by the UTF-8
+     * bytes.
+     */
+    KeyCodec<String> STRING = new KeyCodec<String>() {
+        @Override
+        public int size(String key) {
+            // Counts the UTF-8 bytes without encoding; lone surrogates encode as '?'.
+            int length = Integer.BYTES;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c < 0x80) {
+                    length += 1;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < key.length()
+                        && Character.isLowSurrogate(key.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    length += 1;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+
+        @Override
+        public void write(String key, ByteBuffer buffer) {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+
+        @Override
+        public String read(ByteBuffer buffer) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new java.nio.BufferUnderflowException();
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
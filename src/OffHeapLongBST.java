@@ -0,0 +1,519 @@
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import sun.misc.Unsafe;
+
+/**
+ * BST of primitive long keys whose nodes live in an off-heap arena.
+ *
+ * Every node is a 16 byte slot of a direct ByteBuffer: the key, then the
+ * int slot indices of the left and right children. Slot 0 is never used, so
+ * index 0 plays the role of a null child. Removed slots are chained into a
+ * free list through their left index and handed out again by later adds,
+ * and the arena doubles when it runs out of slots. A tree of 50M keys thus
+ * costs about 800 MB outside the heap and a handful of objects inside it,
+ * which keeps it out of the garbage collector's way. int keys can be stored
+ * as longs without loss.
+ *
+ * While the arena doubles, the old and the new arena are both allocated
+ * until the slots are copied, so a grow step needs direct memory for three
+ * times the old arena: growing from 512 MB to 1 GB takes 1.5 GB at its peak.
+ * The old arena is freed as soon as it is copied rather than left for the
+ * garbage collector, so arenas do not pile up against
+ * -XX:MaxDirectMemorySize.
+ *
+ * Call close() once the tree is no longer needed. It frees the arena right
+ * away, and any later use of the tree throws IllegalStateException. The
+ * tree is not thread-safe.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class OffHeapLongBST implements AutoCloseable {
+
+    private static final int SLOT_BYTES = 16;
+    private static final int LEFT_OFFSET = 8;
+    private static final int RIGHT_OFFSET = 12;
+    private static final int NIL = 0;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_SLOTS = Integer.MAX_VALUE / SLOT_BYTES;
+    private static final Unsafe UNSAFE = unsafe();
+
+    private ByteBuffer arena;
+    private int capacity;
+    private int next = 1;
+    private int free = NIL;
+    private int root = NIL;
+    private int size;
+
+    /**
+     * Constructs an empty tree with room for a default number of keys.
+     */
+    public OffHeapLongBST() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty tree with room for the given number of keys before
+     * the arena has to grow.
+     *
+     * @param initialCapacity the number of keys to reserve space for
+     * @throws java.lang.IllegalArgumentException if initialCapacity is
+     *                                            negative or too large
+     */
+    public OffHeapLongBST(int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity >= MAX_SLOTS) {
+            throw new java.lang.IllegalArgumentException("cannot reserve " + initialCapacity + " slots");
+        }
+        capacity = Math.max(initialCapacity + 1, 2);
+        arena = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private static Unsafe unsafe() {
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (Unsafe) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Frees the native memory of a direct buffer now instead of once the
+     * buffer is garbage collected. The buffer must not be used afterwards.
+     *
+     * @param buffer the buffer returned by ByteBuffer.allocateDirect
+     */
+    private static void free(ByteBuffer buffer) {
+        UNSAFE.invokeCleaner(buffer);
+    }
+
+    private long key(int slot) {
+        return arena.getLong(slot * SLOT_BYTES);
+    }
+
+    private int left(int slot) {
+        return arena.getInt(slot * SLOT_BYTES + LEFT_OFFSET);
+    }
+
+    private int right(int slot) {
+        return arena.getInt(slot * SLOT_BYTES + RIGHT_OFFSET);
+    }
+
+    private void setKey(int slot, long key) {
+        arena.putLong(slot * SLOT_BYTES, key);
+    }
+
+    private void setLeft(int slot, int child) {
+        arena.putInt(slot * SLOT_BYTES + LEFT_OFFSET, child);
+    }
+
+    private void setRight(int slot, int child) {
+        arena.putInt(slot * SLOT_BYTES + RIGHT_OFFSET, child);
+    }
+
+    private void checkOpen() {
+        if (arena == null) {
+            throw new java.lang.IllegalStateException("tree has been closed");
+        }
+    }
+
+    /**
+     * Takes a slot from the free list, or from the end of the arena, growing
+     * the arena if it is full.
+     *
+     * @param key the key of the new leaf
+     * @return the slot of the new leaf
+     */
+    private int allocate(long key) {
+        int slot;
+        if (free != NIL) {
+            slot = free;
+            free = left(slot);
+        } else {
+            if (next == capacity) {
+                grow();
+            }
+            slot = next++;
+        }
+        setKey(slot, key);
+        setLeft(slot, NIL);
+        setRight(slot, NIL);
+        return slot;
+    }
+
+    private void grow() {
+        if (capacity >= MAX_SLOTS) {
+            throw new java.lang.IllegalStateException("arena cannot hold more than " + (MAX_SLOTS - 1) + " keys");
+        }
+        int newCapacity = (int) Math.min((long) capacity * 2, MAX_SLOTS);
+        ByteBuffer grown = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer old = arena.duplicate();
+        old.position(0).limit(next * SLOT_BYTES);
+        grown.put(old);
+        free(arena);
+        arena = grown;
+        capacity = newCapacity;
+    }
+
+    private void release(int slot) {
+        setLeft(slot, free);
+        free = slot;
+    }
+
+    /**
+     * Adds the key to the tree. If the key is already in the tree, then
+     * nothing is done.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param key the key to add
+     * @throws java.lang.IllegalStateException if the tree has been closed
+     */
+    public void add(long key) {
+        checkOpen();
+        if (root == NIL) {
+            root = allocate(key);
+            size++;
+            return;
+        }
+        int slot = root;
+        while (true) {
+            long current = key(slot);
+            if (key < current) {
+                int child = left(slot);
+                if (child == NIL) {
+                    setLeft(slot, allocate(key));
+                    size++;
+                    return;
+                }
+                slot = child;
+            } else if (key > current) {
+                int child = right(slot);
+                if (child == NIL) {
+                    setRight(slot, allocate(key));
+                    size++;
+                    return;
+                }
+                slot = child;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the key from the tree. A node with two children takes the key
+     * of its successor, whose slot is freed instead.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param key the key to remove
+     * @return the key that was removed
+     * @throws java.util.NoSuchElementException if the key is not in the tree
+     * @throws java.lang.IllegalStateException  if the tree has been closed
+     */
+    public long remove(long key) {
+        checkOpen();
+        int parent = NIL;
+        int slot = root;
+        while (slot != NIL && key(slot) != key) {
+            parent = slot;
+            slot = key < key(slot) ? left(slot) : right(slot);
+        }
+        if (slot == NIL) {
+            throw new java.util.NoSuchElementException("cannot remove key if key is not in BST");
+        }
+        if (left(slot) != NIL && right(slot) != NIL) {
+            int successorParent = slot;
+            int successor = right(slot);
+            while (left(successor) != NIL) {
+                successorParent = successor;
+                successor = left(successor);
+            }
+            setKey(slot, key(successor));
+            if (successorParent == slot) {
+                setRight(successorParent, right(successor));
+            } else {
+                setLeft(successorParent, right(successor));
+            }
+            release(successor);
+        } else {
+            int child = left(slot) == NIL ? right(slot) : left(slot);
+            if (parent == NIL) {
+                root = child;
+            } else if (left(parent) == slot) {
+                setLeft(parent, child);
+            } else {
+                setRight(parent, child);
+            }
+            release(slot);
+        }
+        size--;
+        return key;
+    }
+
+    /**
+     * Returns whether or not the key is contained within the tree.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param key the key to search for
+     * @return true if the key is in the tree, false otherwise
+     * @throws java.lang.IllegalStateException if the tree has been closed
+     */
+    public boolean contains(long key) {
+        checkOpen();
+        int slot = root;
+        while (slot != NIL) {
+            long current = key(slot);
+            if (key == current) {
+                return true;
+            }
+            slot = key < current ? left(slot) : right(slot);
+        }
+        return false;
+    }
+
+    /**
+     * Generate a pre-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the preorder traversal of the tree
+     * @throws java.lang.IllegalStateException if the tree has been closed
+     */
+    public long[] preorder() {
+        checkOpen();
+        long[] result = new long[size];
+        int count = 0;
+        int[] stack = new int[16];
+        int top = 0;
+        if (root != NIL) {
+            stack[top++] = root;
+        }
+        while (top > 0) {
+            int slot = stack[--top];
+            result[count++] = key(slot);
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (right(slot) != NIL) {
+                stack[top++] = right(slot);
+            }
+            if (left(slot) != NIL) {
+                stack[top++] = left(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generate an in-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     * @throws java.lang.IllegalStateException if the tree has been closed
+     */
+    public long[] inorder() {
+        checkOpen();
+        long[] result = new long[size];
+        int count = 0;
+        int[] stack = new int[16];
+        int top = 0;
+        int slot = root;
+        while (slot != NIL || top > 0) {
+            while (slot != NIL) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = slot;
+                slot = left(slot);
+            }
+            slot = stack[--top];
+            result[count++] = key(slot);
+            slot = right(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Generate a post-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the postorder traversal of the tree
+     * @throws java.lang.IllegalStateException if the tree has been closed
+     */
+    public long[] postorder() {
+        checkOpen();
+        long[] result = new long[size];
+        int count = 0;
+        int[] stack = new int[16];
+        int top = 0;
+        int slot = root;
+        int lastVisited = NIL;
+        while (slot != NIL || top > 0) {
+            while (slot != NIL) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = slot;
+                slot = left(slot);
+            }
+            int peek = stack[top - 1];
+            if (right(peek) != NIL && right(peek) != lastVisited) {
+                slot = right(peek);
+            } else {
+                result[count++] = key(peek);
+                lastVisited = stack[--top];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generate a level-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the level order traversal of the tree
+     * @throws java.lang.IllegalStateException if the tree has been closed
+     */
+    public long[] levelorder() {
+        checkOpen();
+        int[] queue = new int[size];
+        int tail = 0;
+        if (root != NIL) {
+            queue[tail++] = root;
+        }
+        for (int head = 0; head < tail; head++) {
+            int slot = queue[head];
+            if (left(slot) != NIL) {
+                queue[tail++] = left(slot);
+            }
+            if (right(slot) != NIL) {
+                queue[tail++] = right(slot);
+            }
+        }
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = key(queue[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the height of the root of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     * @throws java.lang.IllegalStateException if the tree has been closed
+     */
+    public int height() {
+        checkOpen();
+        int[] queue = new int[size];
+        int tail = 0;
+        int height = -1;
+        if (root != NIL) {
+            queue[tail++] = root;
+        }
+        int head = 0;
+        while (head < tail) {
+            height++;
+            int levelEnd = tail;
+            for (; head < levelEnd; head++) {
+                int slot = queue[head];
+                if (left(slot) != NIL) {
+                    queue[tail++] = left(slot);
+                }
+                if (right(slot) != NIL) {
+                    queue[tail++] = right(slot);
+                }
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Finds and retrieves the k-largest keys from the tree in sorted order,
+     * least to greatest.
+     *
+     * Must be O(log(n) + k) for a balanced tree and O(n + k) for worst case.
+     *
+     * @param k the number of largest keys to return
+     * @return sorted array consisting of the k largest keys
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of keys in the tree
+     * @throws java.lang.IllegalStateException    if the tree has been closed
+     */
+    public long[] kLargest(int k) {
+        checkOpen();
+        if (k < 0 || k > size) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        }
+        long[] result = new long[k];
+        int count = k;
+        int[] stack = new int[16];
+        int top = 0;
+        int slot = root;
+        while (count > 0) {
+            while (slot != NIL) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = slot;
+                slot = right(slot);
+            }
+            slot = stack[--top];
+            result[--count] = key(slot);
+            slot = left(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Clears the tree. The arena keeps its capacity for reuse.
+     *
+     * Must be O(1).
+     *
+     * @throws java.lang.IllegalStateException if the tree has been closed
+     */
+    public void clear() {
+        checkOpen();
+        root = NIL;
+        size = 0;
+        next = 1;
+        free = NIL;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Frees the arena. Calling close() more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (arena != null) {
+            free(arena);
+        }
+        arena = null;
+        root = NIL;
+        size = 0;
+        next = 1;
+        free = NIL;
+        capacity = 0;
+    }
+}
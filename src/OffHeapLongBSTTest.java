@@ -0,0 +1,127 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for OffHeapLongBST.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class OffHeapLongBSTTest {
+
+    private static final int TIMEOUT = 500;
+    private OffHeapLongBST tree;
+
+    @Before
+    public void setup() {
+        tree = new OffHeapLongBST(4);
+    }
+
+    @After
+    public void tearDown() {
+        tree.close();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTraversals() {
+        /*
+                  50
+                /    \
+              25      75
+             /  \
+            12   37
+        */
+
+        for (long key : new long[] {50, 25, 75, 12, 37}) {
+            tree.add(key);
+        }
+        tree.add(37);
+
+        assertEquals(5, tree.size());
+        assertEquals(2, tree.height());
+        assertArrayEquals(new long[] {50, 25, 12, 37, 75}, tree.preorder());
+        assertArrayEquals(new long[] {12, 25, 37, 50, 75}, tree.inorder());
+        assertArrayEquals(new long[] {12, 37, 25, 75, 50}, tree.postorder());
+        assertArrayEquals(new long[] {50, 25, 75, 12, 37}, tree.levelorder());
+        assertArrayEquals(new long[] {37, 50, 75}, tree.kLargest(3));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRandomMutationsReuseSlots() {
+        Random random = new Random(1332);
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(2000) - 1000L;
+            if (random.nextBoolean()) {
+                tree.add(key);
+                expected.add(key);
+            } else if (expected.remove(key)) {
+                assertEquals(key, tree.remove(key));
+            }
+            assertEquals(expected.contains(key), tree.contains(key));
+        }
+
+        assertEquals(expected.size(), tree.size());
+        long[] inorder = tree.inorder();
+        int i = 0;
+        for (long key : expected) {
+            assertEquals(key, inorder[i++]);
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() {
+        tree.add(1);
+        tree.remove(2);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalStateException.class)
+    public void testUseAfterClose() {
+        tree.add(1);
+        tree.close();
+        tree.contains(1);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGrowAndCloseFreeArenas() {
+        BufferPoolMXBean direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> pool.getName().equals("direct"))
+            .findFirst()
+            .orElseThrow();
+        long before = direct.getMemoryUsed();
+        OffHeapLongBST grown = new OffHeapLongBST(1 << 10);
+        for (int i = 0; i < 1 << 16; i++) {
+            grown.add(i * 2654435761L % 1000003);
+        }
+        // Only the current arena of 2^16 slots or more is still allocated, not the ones it grew out of.
+        long used = direct.getMemoryUsed() - before;
+        assertTrue(used >= (1L << 16) * 16 && used < (3L << 15) * 16);
+        assertEquals(grown.size(), grown.postorder().length);
+        grown.close();
+        assertEquals(before, direct.getMemoryUsed());
+        grown.close();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testClear() {
+        tree.add(1);
+        tree.add(2);
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertFalse(tree.contains(1));
+        tree.add(3);
+        assertTrue(tree.contains(3));
+    }
+}
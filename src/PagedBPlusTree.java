@@ -0,0 +1,638 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Disk-backed B+-tree with the operations of BST, for data that does not
+ * fit in the heap.
+ *
+ * The tree lives in one file of fixed-size pages. Page 0 is a header
+ * (magic number, page size, root page, page count, size and height); every
+ * other page is a node. Leaves hold the data in ascending order and link to the next
+ * leaf; internal nodes hold separators, where child i + 1 holds the data
+ * greater than or equal to separator i. A node splits when its encoded form
+ * outgrows a page, so pages hold as many keys as fit, and the tree stays a
+ * few levels deep even for billions of keys.
+ *
+ * Nodes are cached decoded in a BufferPool of a fixed number of pages with
+ * clock eviction: the hot upper levels stay in memory and cold leaves are
+ * read on demand. remove() does not merge underfull pages; the separators
+ * remain correct bounds, so lookups are unaffected, and the space is reused
+ * by later adds to the same range.
+ *
+ * Operations report I/O failures as UncheckedIOException, like the JDK's
+ * stream APIs, so the signatures match BST. Changes reach the file when
+ * pages are evicted, on flush() and on close(); the file is not crash-safe
+ * between those points. The tree is not thread-safe.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ * @param <T> the type of data in the tree
+ */
+public class PagedBPlusTree<T extends Comparable<? super T>> implements AutoCloseable {
+
+    private static final int MAGIC = 0x42505401;
+    private static final int MIN_PAGE_SIZE = 128;
+    private static final int MIN_POOL_PAGES = 16;
+    private static final int HEADER_PAGE = 0;
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int NO_PAGE = 0;
+    // Page type, key count and next leaf (unused by internal nodes).
+    private static final int NODE_HEADER = 1 + Integer.BYTES + Integer.BYTES;
+
+    /**
+     * A decoded page. bytes tracks the size of its encoded form.
+     */
+    private static final class Node {
+        private final boolean leaf;
+        private final List<Object> keys;
+        private final List<Integer> children;
+        private int next = NO_PAGE;
+        private int bytes = NODE_HEADER;
+
+        private Node(boolean leaf, int capacity) {
+            this.leaf = leaf;
+            this.keys = new ArrayList<>(capacity);
+            this.children = leaf ? null : new ArrayList<>(capacity + 1);
+        }
+    }
+
+    private final FileChannel channel;
+    private final KeyCodec<T> codec;
+    private final int pageSize;
+    private final int maxKeyBytes;
+    private final BufferPool<Node> pool;
+    private int root;
+    private int pageCount;
+    private int size;
+    private int height;
+
+    private PagedBPlusTree(FileChannel channel, KeyCodec<T> codec, int pageSize, int poolPages) {
+        this.channel = channel;
+        this.codec = codec;
+        this.pageSize = pageSize;
+        this.maxKeyBytes = (pageSize - NODE_HEADER) / 4 - Integer.BYTES;
+        this.pool = new BufferPool<>(new BufferPool.Storage<Node>() {
+            @Override
+            public Node read(int pageId) throws IOException {
+                return readNode(pageId);
+            }
+
+            @Override
+            public void write(int pageId, Node node) throws IOException {
+                writeNode(pageId, node);
+            }
+        }, poolPages);
+    }
+
+    /**
+     * Opens the tree in the file, creating an empty tree if the file does
+     * not exist or is empty.
+     *
+     * @param file      the file of the tree
+     * @param codec     the encoding of the data
+     * @param pageSize  the size of a page in bytes; an existing file keeps
+     *                  the page size it was created with, and must match
+     * @param poolPages the number of pages cached in memory
+     * @param <T>       the type of data in the tree
+     * @return the tree
+     * @throws java.lang.IllegalArgumentException if file or codec is null,
+     *                                            pageSize is below 128 or
+     *                                            poolPages is below 16
+     * @throws java.io.IOException                if the file cannot be
+     *                                            opened, is not a tree or
+     *                                            has another page size
+     */
+    public static <T extends Comparable<? super T>> PagedBPlusTree<T> open(Path file, KeyCodec<T> codec,
+            int pageSize, int poolPages) throws IOException {
+        if (file == null || codec == null) {
+            throw new java.lang.IllegalArgumentException("cannot open PagedBPlusTree with null parameters");
+        } else if (pageSize < MIN_PAGE_SIZE) {
+            throw new java.lang.IllegalArgumentException("page size must be at least " + MIN_PAGE_SIZE);
+        } else if (poolPages < MIN_POOL_PAGES) {
+            throw new java.lang.IllegalArgumentException("buffer pool must hold at least " + MIN_POOL_PAGES
+                    + " pages");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            PagedBPlusTree<T> tree = new PagedBPlusTree<>(channel, codec, pageSize, poolPages);
+            if (channel.size() == 0) {
+                tree.root = 1;
+                tree.pageCount = 2;
+                tree.height = 0;
+                tree.pool.create(tree.root, new Node(true, 0));
+                tree.pool.unpin(tree.root, true);
+                tree.flush();
+            } else {
+                tree.readHeader(file);
+            }
+            return tree;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readHeader(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(6 * Integer.BYTES);
+        readFully(header, HEADER_PAGE);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException(file + " is not a paged B+-tree");
+        } else if (header.getInt() != pageSize) {
+            throw new IOException(file + " was created with another page size");
+        }
+        root = header.getInt();
+        pageCount = header.getInt();
+        size = header.getInt();
+        height = header.getInt();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(pageSize);
+        header.putInt(MAGIC).putInt(pageSize).putInt(root).putInt(pageCount).putInt(size).putInt(height);
+        header.clear();
+        writeFully(header, HEADER_PAGE);
+    }
+
+    private void readFully(ByteBuffer buffer, int pageId) throws IOException {
+        long position = (long) pageId * pageSize;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("page " + pageId + " is past the end of the file");
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, int pageId) throws IOException {
+        long position = (long) pageId * pageSize;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private Node readNode(int pageId) throws IOException {
+        ByteBuffer page = ByteBuffer.allocate(pageSize);
+        readFully(page, pageId);
+        page.flip();
+        boolean leaf = page.get() == LEAF;
+        int count = page.getInt();
+        Node node = new Node(leaf, count);
+        node.next = page.getInt();
+        if (!leaf) {
+            for (int i = 0; i <= count; i++) {
+                node.children.add(page.getInt());
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            node.keys.add(codec.read(page));
+        }
+        node.bytes = page.position();
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeNode(int pageId, Node node) throws IOException {
+        ByteBuffer page = ByteBuffer.allocate(pageSize);
+        page.put(node.leaf ? LEAF : INTERNAL).putInt(node.keys.size()).putInt(node.next);
+        if (!node.leaf) {
+            for (int child : node.children) {
+                page.putInt(child);
+            }
+        }
+        for (Object key : node.keys) {
+            codec.write((T) key, page);
+        }
+        page.clear();
+        writeFully(page, pageId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(T data, Object key) {
+        return data.compareTo((T) key);
+    }
+
+    /**
+     * Returns the index of the data in the keys of a leaf, or
+     * -(insertion point) - 1 if it is not there.
+     */
+    private int search(Node node, T data) {
+        int low = 0;
+        int high = node.keys.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compare = compare(data, node.keys.get(mid));
+            if (compare == 0) {
+                return mid;
+            } else if (compare < 0) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Returns the child of an internal node that covers the data: the
+     * number of separators less than or equal to it.
+     */
+    private int childIndex(Node node, T data) {
+        int index = search(node, data);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private void checkData(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot use null data in PagedBPlusTree");
+        }
+    }
+
+    /**
+     * Returns the leaf that would hold the data, pinned, with the pages of
+     * its ancestors pinned on path (root first) along with the index of the
+     * child taken at each. If a page cannot be read, every page pinned so
+     * far is unpinned before the exception is rethrown.
+     */
+    private Node descend(T data, Deque<int[]> path) {
+        int pageId = root;
+        Node node = pool.fetch(pageId);
+        try {
+            while (!node.leaf) {
+                int index = childIndex(node, data);
+                path.push(new int[] {pageId, index});
+                pageId = node.children.get(index);
+                node = pool.fetch(pageId);
+            }
+        } catch (RuntimeException e) {
+            unpinAll(path, false);
+            throw e;
+        }
+        path.push(new int[] {pageId, 0});
+        return node;
+    }
+
+    private void unpinAll(Deque<int[]> path, boolean changed) {
+        while (!path.isEmpty()) {
+            pool.unpin(path.pop()[0], changed);
+        }
+    }
+
+    /**
+     * Adds the data to the tree. If the data is already in the tree, then
+     * nothing is done.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null or its
+     *                                            encoding takes more than a
+     *                                            quarter of a page
+     * @throws java.io.UncheckedIOException       if a page cannot be read
+     *                                            or written
+     */
+    public void add(T data) {
+        checkData(data);
+        int keyBytes = codec.size(data);
+        if (keyBytes > maxKeyBytes) {
+            throw new java.lang.IllegalArgumentException("data takes " + keyBytes + " bytes, the limit is "
+                    + maxKeyBytes);
+        }
+        Deque<int[]> path = new ArrayDeque<>();
+        Node leaf = descend(data, path);
+        int index = search(leaf, data);
+        if (index >= 0) {
+            unpinAll(path, false);
+            return;
+        }
+        leaf.keys.add(-index - 1, data);
+        leaf.bytes += keyBytes;
+        size++;
+        boolean done = false;
+        try {
+            splitUpwards(leaf, path);
+            // The top of the path is now the last node changed; the ones above it are untouched.
+            if (!path.isEmpty()) {
+                pool.unpin(path.pop()[0], true);
+            }
+            done = true;
+        } finally {
+            unpinAll(path, !done);
+        }
+    }
+
+    /**
+     * Splits the node on top of the path while it does not fit in a page,
+     * moving the separator of each split into the parent.
+     */
+    private void splitUpwards(Node node, Deque<int[]> path) {
+        while (node.bytes > pageSize) {
+            int pageId = path.pop()[0];
+            Node right = new Node(node.leaf, node.keys.size());
+            int rightId = pageCount++;
+            Object separator = split(node, right);
+            if (node.leaf) {
+                node.next = rightId;
+            }
+            pool.create(rightId, right);
+            pool.unpin(rightId, true);
+            pool.unpin(pageId, true);
+            int separatorBytes = codec.size(asData(separator)) + Integer.BYTES;
+            if (path.isEmpty()) {
+                Node newRoot = new Node(false, 1);
+                newRoot.keys.add(separator);
+                newRoot.children.add(pageId);
+                newRoot.children.add(rightId);
+                newRoot.bytes += Integer.BYTES + separatorBytes;
+                root = pageCount++;
+                height++;
+                pool.create(root, newRoot);
+                pool.unpin(root, true);
+                return;
+            }
+            int[] parentEntry = path.peek();
+            Node parent = pool.fetch(parentEntry[0]);
+            pool.unpin(parentEntry[0], true);
+            parent.keys.add(parentEntry[1], separator);
+            parent.children.add(parentEntry[1] + 1, rightId);
+            parent.bytes += separatorBytes;
+            node = parent;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T asData(Object key) {
+        return (T) key;
+    }
+
+    /**
+     * Moves the upper half (by encoded size) of a node into an empty node.
+     *
+     * @return the separator for the parent: the first key of the right leaf,
+     * or the middle key of an internal node, which leaves the node
+     */
+    private Object split(Node node, Node right) {
+        int entry = node.leaf ? 0 : Integer.BYTES;
+        int half = (node.bytes - NODE_HEADER) / 2;
+        int at = 0;
+        int bytes = 0;
+        while (at < node.keys.size() - 1 && bytes + codec.size(asData(node.keys.get(at))) + entry <= half) {
+            bytes += codec.size(asData(node.keys.get(at))) + entry;
+            at++;
+        }
+        at = Math.max(at, 1);
+        Object separator = node.keys.get(at);
+        int from = node.leaf ? at : at + 1;
+        right.keys.addAll(node.keys.subList(from, node.keys.size()));
+        node.keys.subList(at, node.keys.size()).clear();
+        if (node.leaf) {
+            right.next = node.next;
+        } else {
+            right.children.addAll(node.children.subList(at + 1, node.children.size()));
+            node.children.subList(at + 1, node.children.size()).clear();
+        }
+        node.bytes = encodedSize(node);
+        right.bytes = encodedSize(right);
+        return separator;
+    }
+
+    private int encodedSize(Node node) {
+        int bytes = NODE_HEADER;
+        for (Object key : node.keys) {
+            bytes += codec.size(asData(key));
+        }
+        return node.leaf ? bytes : bytes + Integer.BYTES * node.children.size();
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given
+     * parameter. Underfull pages are not merged.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     * @throws java.io.UncheckedIOException       if a page cannot be read or
+     *                                            written
+     */
+    public T remove(T data) {
+        checkData(data);
+        Deque<int[]> path = new ArrayDeque<>();
+        Node leaf = descend(data, path);
+        int index = search(leaf, data);
+        if (index < 0) {
+            unpinAll(path, false);
+            throw new java.util.NoSuchElementException("cannot remove data if data is not in the tree");
+        }
+        T removed = asData(leaf.keys.remove(index));
+        leaf.bytes -= codec.size(removed);
+        size--;
+        pool.unpin(path.pop()[0], true);
+        unpinAll(path, false);
+        return removed;
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     * @throws java.io.UncheckedIOException       if a page cannot be read
+     */
+    public T get(T data) {
+        checkData(data);
+        Deque<int[]> path = new ArrayDeque<>();
+        Node leaf = descend(data, path);
+        int index = search(leaf, data);
+        T found = index >= 0 ? asData(leaf.keys.get(index)) : null;
+        unpinAll(path, false);
+        if (found == null) {
+            throw new java.util.NoSuchElementException("cannot get data if data is not in the tree");
+        }
+        return found;
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.io.UncheckedIOException       if a page cannot be read
+     */
+    public boolean contains(T data) {
+        checkData(data);
+        Deque<int[]> path = new ArrayDeque<>();
+        Node leaf = descend(data, path);
+        boolean found = search(leaf, data) >= 0;
+        unpinAll(path, false);
+        return found;
+    }
+
+    /**
+     * Generate an in-order traversal of the tree by following the leaf
+     * chain.
+     *
+     * Must be O(n).
+     *
+     * @return the data in sorted order
+     * @throws java.io.UncheckedIOException if a page cannot be read
+     */
+    public List<T> inorder() {
+        List<T> list = new ArrayList<>(size);
+        int pageId = root;
+        Node node = pool.fetch(pageId);
+        while (!node.leaf) {
+            int child = node.children.get(0);
+            pool.unpin(pageId, false);
+            pageId = child;
+            node = pool.fetch(pageId);
+        }
+        while (true) {
+            for (Object key : node.keys) {
+                list.add(asData(key));
+            }
+            int next = node.next;
+            pool.unpin(pageId, false);
+            if (next == NO_PAGE) {
+                return list;
+            }
+            pageId = next;
+            node = pool.fetch(pageId);
+        }
+    }
+
+    /**
+     * Finds and retrieves the k-largest elements from the tree in sorted
+     * order, least to greatest. The tree is walked from its rightmost leaf
+     * backwards.
+     *
+     * Must be O(log(n) + k).
+     *
+     * @param k the number of largest elements to return
+     * @return sorted list consisting of the k largest elements
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of data in the tree
+     * @throws java.io.UncheckedIOException       if a page cannot be read
+     */
+    public List<T> kLargest(int k) {
+        if (k < 0 || k > size) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        }
+        List<T> list = new ArrayList<>(k);
+        // Children still to visit, rightmost on top.
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (list.size() < k) {
+            int pageId = stack.pop();
+            Node node = pool.fetch(pageId);
+            if (node.leaf) {
+                for (int i = node.keys.size() - 1; i >= 0 && list.size() < k; i--) {
+                    list.add(asData(node.keys.get(i)));
+                }
+            } else {
+                for (int child : node.children) {
+                    stack.push(child);
+                }
+            }
+            pool.unpin(pageId, false);
+        }
+        Collections.reverse(list);
+        return list;
+    }
+
+    /**
+     * Returns the number of levels below the root; a tree that is a single
+     * leaf has height 0.
+     *
+     * Must be O(1).
+     *
+     * @return the height of the tree
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of page fetches served from the buffer pool.
+     *
+     * @return the number of cache hits
+     */
+    long cacheHits() {
+        return pool.hits();
+    }
+
+    /**
+     * Returns the number of page fetches that read the file.
+     *
+     * @return the number of cache misses
+     */
+    long cacheMisses() {
+        return pool.misses();
+    }
+
+    /**
+     * Returns the number of cached pages that are pinned. Between calls
+     * this is 0.
+     *
+     * @return the number of pinned pages
+     */
+    int pinnedPages() {
+        return pool.pinned();
+    }
+
+    /**
+     * Writes every changed page and the header to the file and forces them
+     * to disk.
+     *
+     * @throws java.io.IOException if the file cannot be written
+     */
+    public void flush() throws IOException {
+        pool.flush();
+        writeHeader();
+        channel.force(true);
+    }
+
+    /**
+     * Flushes the tree and closes the file.
+     *
+     * @throws java.io.IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for PagedBPlusTree.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class PagedBPlusTreeTest {
+
+    private static final int TIMEOUT = 10000;
+    private static final int PAGE_SIZE = 256;
+    private static final int POOL_PAGES = 16;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = TIMEOUT)
+    public void testRandomOperationsAgainstTreeSet() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("tree");
+        Random random = new Random(4321);
+        TreeSet<Integer> expected = new TreeSet<>();
+        try (PagedBPlusTree<Integer> tree = PagedBPlusTree.open(file, KeyCodec.INTEGER, PAGE_SIZE, POOL_PAGES)) {
+            for (int i = 0; i < 50000; i++) {
+                int value = random.nextInt(20000);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(value), tree.contains(value));
+                    if (tree.contains(value)) {
+                        assertEquals((Integer) value, tree.remove(value));
+                    }
+                } else {
+                    expected.add(value);
+                    tree.add(value);
+                }
+            }
+            assertEquals(expected.size(), tree.size());
+            assertEquals(new ArrayList<>(expected), tree.inorder());
+            assertTrue(tree.height() >= 2);
+            // The pool is far smaller than the tree, so pages must have been evicted and read back.
+            assertTrue(tree.cacheMisses() > 0);
+            assertTrue(tree.cacheHits() > tree.cacheMisses());
+        }
+        try (PagedBPlusTree<Integer> tree = PagedBPlusTree.open(file, KeyCodec.INTEGER, PAGE_SIZE, POOL_PAGES)) {
+            assertEquals(new ArrayList<>(expected), tree.inorder());
+            List<Integer> largest = new ArrayList<>(expected).subList(expected.size() - 100, expected.size());
+            assertEquals(largest, tree.kLargest(100));
+            assertEquals(new ArrayList<>(expected), tree.kLargest(expected.size()));
+            for (int value = 0; value < 20000; value += 7) {
+                assertEquals(expected.contains(value), tree.contains(value));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEmptyLeavesAfterRemoval() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("tree");
+        try (PagedBPlusTree<Long> tree = PagedBPlusTree.open(file, KeyCodec.LONG, PAGE_SIZE, POOL_PAGES)) {
+            for (long i = 0; i < 1000; i++) {
+                tree.add(i);
+            }
+            for (long i = 100; i < 900; i++) {
+                tree.remove(i);
+            }
+            assertEquals(200, tree.size());
+            assertEquals(List.of(98L, 99L, 900L, 901L), tree.kLargest(105).subList(3, 7));
+            assertFalse(tree.contains(500L));
+            tree.add(500L);
+            assertEquals((Long) 500L, tree.get(500L));
+            assertEquals(201, tree.inorder().size());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testStringKeys() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("tree");
+        TreeSet<String> expected = new TreeSet<>();
+        try (PagedBPlusTree<String> tree = PagedBPlusTree.open(file, KeyCodec.STRING, PAGE_SIZE, POOL_PAGES)) {
+            Random random = new Random(99);
+            for (int i = 0; i < 5000; i++) {
+                String value = Integer.toString(random.nextInt(), 36) + "x".repeat(random.nextInt(30));
+                expected.add(value);
+                tree.add(value);
+            }
+            assertEquals(new ArrayList<>(expected), tree.inorder());
+            try {
+                tree.add("x".repeat(PAGE_SIZE));
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals(expected.size(), tree.size());
+            }
+        }
+        try (PagedBPlusTree<String> tree = PagedBPlusTree.open(file, KeyCodec.STRING, PAGE_SIZE, POOL_PAGES)) {
+            assertEquals(new ArrayList<>(expected), tree.inorder());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFailedReadsReleasePins() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("tree");
+        // Reads of pages fail while failing is set, as if the disk had a transient error.
+        AtomicBoolean failing = new AtomicBoolean();
+        KeyCodec<Integer> flaky = new KeyCodec<Integer>() {
+            @Override
+            public int size(Integer key) {
+                return KeyCodec.INTEGER.size(key);
+            }
+
+            @Override
+            public void write(Integer key, ByteBuffer buffer) {
+                KeyCodec.INTEGER.write(key, buffer);
+            }
+
+            @Override
+            public Integer read(ByteBuffer buffer) {
+                if (failing.get()) {
+                    throw new UncheckedIOException(new IOException("transient read error"));
+                }
+                return KeyCodec.INTEGER.read(buffer);
+            }
+        };
+        TreeSet<Integer> expected = new TreeSet<>();
+        try (PagedBPlusTree<Integer> tree = PagedBPlusTree.open(file, flaky, PAGE_SIZE, POOL_PAGES)) {
+            for (int i = 0; i < 5000; i++) {
+                expected.add(i * 7 % 5000);
+                tree.add(i * 7 % 5000);
+            }
+            failing.set(true);
+            int failures = 0;
+            for (int i = 0; i < 200; i++) {
+                try {
+                    tree.contains(i * 25);
+                } catch (UncheckedIOException e) {
+                    failures++;
+                }
+                assertEquals(0, tree.pinnedPages());
+            }
+            assertTrue(failures > POOL_PAGES);
+            failing.set(false);
+            for (int i = 0; i < 200; i++) {
+                assertTrue(tree.contains(i * 25));
+            }
+            tree.add(5000);
+            expected.add(5000);
+            assertEquals(new ArrayList<>(expected), tree.inorder());
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("tree");
+        try (PagedBPlusTree<Integer> tree = PagedBPlusTree.open(file, KeyCodec.INTEGER, PAGE_SIZE, POOL_PAGES)) {
+            tree.add(1);
+            tree.remove(2);
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IOException.class)
+    public void testPageSizeMustMatch() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("tree");
+        PagedBPlusTree.open(file, KeyCodec.INTEGER, PAGE_SIZE, POOL_PAGES).close();
+        PagedBPlusTree.open(file, KeyCodec.INTEGER, 2 * PAGE_SIZE, POOL_PAGES);
+    }
+}
@@ -0,0 +1,295 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Persistent variant of the BST whose nodes are never modified once built.
+ *
+ * add and remove copy only the nodes on the path from the root to the change
+ * and share every other subtree with the previous version, so each mutation
+ * allocates O(depth) nodes. Because no published node ever changes,
+ * snapshot() just captures the current root and is O(1); the snapshot stays
+ * valid no matter what writers do afterwards, and old versions are reclaimed
+ * by the garbage collector once nothing refers to them.
+ *
+ * Writers are serialized on the tree's monitor. Readers never lock: they see
+ * the version that was current when they read the root.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class PersistentBST<T extends Comparable<? super T>> {
+
+    private volatile Version<T> current;
+    private final boolean readOnly;
+
+    /**
+     * Immutable node of the persistent tree.
+     */
+    private static final class Node<T> {
+        private final T data;
+        private final Node<T> left;
+        private final Node<T> right;
+
+        Node(T data, Node<T> left, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * A root together with the size of the tree under it, published as one
+     * reference so that readers never see a root and size that disagree.
+     */
+    private static final class Version<T> {
+        private final Node<T> root;
+        private final int size;
+
+        Version(Node<T> root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Constructs a new, empty and writable PersistentBST.
+     */
+    public PersistentBST() {
+        this(new Version<>(null, 0), false);
+    }
+
+    private PersistentBST(Version<T> version, boolean readOnly) {
+        this.current = version;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Returns an immutable view of the tree as it is now.
+     *
+     * Must be O(1).
+     *
+     * @return a read-only PersistentBST sharing the current version
+     */
+    public PersistentBST<T> snapshot() {
+        return readOnly ? this : new PersistentBST<>(current, true);
+    }
+
+    /**
+     * Returns whether this tree is a snapshot that rejects mutations.
+     *
+     * @return true if add, remove and clear are not supported
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Adds the data to the tree by copying the path from the root to the new
+     * leaf. If the data is already in the tree, then nothing is done.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException      if data is null
+     * @throws java.lang.UnsupportedOperationException if this is a snapshot
+     */
+    public synchronized void add(T data) {
+        checkWritable();
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot add null data into BST");
+        }
+        Version<T> version = current;
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = version.root;
+        while (node != null) {
+            int compare = data.compareTo(node.data);
+            if (compare == 0) {
+                return;
+            }
+            path.add(node);
+            node = compare < 0 ? node.left : node.right;
+        }
+        Node<T> root = copyPath(path, data, new Node<>(data, null, null));
+        current = new Version<>(root, version.size + 1);
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given parameter,
+     * copying the path from the root to the removed node (and, for a node
+     * with two children, on down to its successor).
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException      if data is null
+     * @throws java.util.NoSuchElementException        if the data is not in
+     *                                                 the tree
+     * @throws java.lang.UnsupportedOperationException if this is a snapshot
+     */
+    public synchronized T remove(T data) {
+        checkWritable();
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot remove null data");
+        }
+        Version<T> version = current;
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = version.root;
+        while (node != null) {
+            int compare = data.compareTo(node.data);
+            if (compare == 0) {
+                break;
+            }
+            path.add(node);
+            node = compare < 0 ? node.left : node.right;
+        }
+        if (node == null) {
+            throw new java.util.NoSuchElementException("cannot remove data if data is not in BST");
+        }
+        Node<T> replacement;
+        if (node.left == null) {
+            replacement = node.right;
+        } else if (node.right == null) {
+            replacement = node.left;
+        } else {
+            List<Node<T>> spine = new ArrayList<>();
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                spine.add(successor);
+                successor = successor.left;
+            }
+            Node<T> right = successor.right;
+            for (int i = spine.size() - 1; i >= 0; i--) {
+                Node<T> parent = spine.get(i);
+                right = new Node<>(parent.data, right, parent.right);
+            }
+            replacement = new Node<>(successor.data, node.left, right);
+        }
+        current = new Version<>(copyPath(path, data, replacement), version.size - 1);
+        return node.data;
+    }
+
+    /**
+     * Rebuilds the ancestors on the path bottom-up so that the child on the
+     * side of data is the new subtree.
+     *
+     * @param path    the ancestors, from the root down
+     * @param data    the data whose search path was recorded
+     * @param subtree the new subtree hanging below the last ancestor
+     * @return the new root
+     */
+    private Node<T> copyPath(List<Node<T>> path, T data, Node<T> subtree) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node<T> parent = path.get(i);
+            if (data.compareTo(parent.data) < 0) {
+                subtree = new Node<>(parent.data, subtree, parent.right);
+            } else {
+                subtree = new Node<>(parent.data, parent.left, subtree);
+            }
+        }
+        return subtree;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new java.lang.UnsupportedOperationException("cannot modify a snapshot");
+        }
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot get data if data is null");
+        }
+        Node<T> node = find(current.root, data);
+        if (node == null) {
+            throw new java.util.NoSuchElementException("cannot get data if data is not in BST");
+        }
+        return node.data;
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n) for best and average cases and O(n) for worst case.
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("BST doesn't contain null data");
+        }
+        return find(current.root, data) != null;
+    }
+
+    private Node<T> find(Node<T> node, T data) {
+        while (node != null) {
+            int compare = data.compareTo(node.data);
+            if (compare == 0) {
+                return node;
+            }
+            node = compare < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Generate an in-order traversal of one version of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        Version<T> version = current;
+        List<T> list = new ArrayList<>(version.size);
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = version.root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            list.add(node.data);
+            node = node.right;
+        }
+        return list;
+    }
+
+    /**
+     * Clears the tree. Snapshots taken earlier keep their data.
+     *
+     * Must be O(1).
+     *
+     * @throws java.lang.UnsupportedOperationException if this is a snapshot
+     */
+    public synchronized void clear() {
+        checkWritable();
+        current = new Version<>(null, 0);
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return current.size;
+    }
+}
@@ -0,0 +1,95 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for PersistentBST.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class PersistentBSTTest {
+
+    private static final int TIMEOUT = 200;
+    private PersistentBST<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new PersistentBST<>();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSnapshotIsUnaffectedByLaterWrites() {
+        for (int i : new int[] {5, 2, 8, 1, 3}) {
+            tree.add(i);
+        }
+        PersistentBST<Integer> snapshot = tree.snapshot();
+
+        tree.add(4);
+        tree.remove(2);
+        tree.remove(5);
+
+        assertTrue(snapshot.isReadOnly());
+        assertEquals(List.of(1, 2, 3, 5, 8), snapshot.inorder());
+        assertEquals(5, snapshot.size());
+        assertTrue(snapshot.contains(2));
+        assertEquals(List.of(1, 3, 4, 8), tree.inorder());
+        assertEquals(4, tree.size());
+        assertFalse(tree.contains(2));
+    }
+
+    @Test(timeout = TIMEOUT, expected = UnsupportedOperationException.class)
+    public void testSnapshotRejectsWrites() {
+        tree.snapshot().add(1);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRandomMutations() {
+        Random random = new Random(1332);
+        TreeSet<Integer> expected = new TreeSet<>();
+        List<PersistentBST<Integer>> snapshots = new ArrayList<>();
+        List<List<Integer>> contents = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextBoolean()) {
+                tree.add(value);
+                expected.add(value);
+            } else if (expected.remove(value)) {
+                assertEquals((Integer) value, tree.remove(value));
+            }
+            if (i % 100 == 0) {
+                snapshots.add(tree.snapshot());
+                contents.add(new ArrayList<>(expected));
+            }
+        }
+        assertEquals(new ArrayList<>(expected), tree.inorder());
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(contents.get(i), snapshots.get(i).inorder());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGetReturnsStoredData() {
+        Integer temp = 1000;
+        tree.add(temp);
+        assertSame(temp, tree.get(Integer.valueOf(1000)));
+        assertSame(temp, tree.remove(Integer.valueOf(1000)));
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() {
+        tree.add(1);
+        tree.remove(2);
+    }
+}
@@ -0,0 +1,299 @@
+import java.util.Arrays;
+
+/**
+ * Shared structure of the primitive-keyed BSTs (IntBST, LongBST and
+ * DoubleBST).
+ *
+ * Nodes are slots in parallel arrays: the subclass keeps the keys, and this
+ * class keeps the left and right child indices. Slot 0 is never used, so
+ * index 0 plays the role of a null child. Removed slots are chained into a
+ * free list through their left index. Everything that does not look at the
+ * keys (unlinking, traversal order, height) lives here and works on slot
+ * indices; the subclasses map those to keys.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+abstract class PrimitiveBST {
+
+    static final int NIL = 0;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    int[] left;
+    int[] right;
+    int root = NIL;
+    int size;
+    private int next = 1;
+    private int free = NIL;
+
+    /**
+     * Constructs the child arrays with room for the given number of keys.
+     *
+     * @param initialCapacity the number of keys to reserve space for
+     * @throws java.lang.IllegalArgumentException if initialCapacity < 0
+     */
+    PrimitiveBST(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new java.lang.IllegalArgumentException("cannot reserve " + initialCapacity + " slots");
+        }
+        int capacity = Math.max(initialCapacity + 1, DEFAULT_CAPACITY);
+        left = new int[capacity];
+        right = new int[capacity];
+    }
+
+    /**
+     * Resizes the key array to the new capacity, keeping existing keys.
+     *
+     * @param capacity the new number of slots
+     */
+    abstract void resizeKeys(int capacity);
+
+    /**
+     * Copies the key of one slot into another.
+     *
+     * @param from the slot to copy from
+     * @param to   the slot to copy to
+     */
+    abstract void copyKey(int from, int to);
+
+    /**
+     * Returns a fresh leaf slot whose key the caller must set.
+     *
+     * @return the new slot
+     */
+    int allocate() {
+        int slot;
+        if (free != NIL) {
+            slot = free;
+            free = left[slot];
+        } else {
+            if (next == left.length) {
+                int capacity = left.length * 2;
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                resizeKeys(capacity);
+            }
+            slot = next++;
+        }
+        left[slot] = NIL;
+        right[slot] = NIL;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Removes the node in the slot from the tree. A node with two children
+     * takes the key of its successor, whose slot is freed instead.
+     *
+     * @param parent the parent of the slot, or NIL if it is the root
+     * @param slot   the slot to remove
+     */
+    void unlink(int parent, int slot) {
+        if (left[slot] != NIL && right[slot] != NIL) {
+            int successorParent = slot;
+            int successor = right[slot];
+            while (left[successor] != NIL) {
+                successorParent = successor;
+                successor = left[successor];
+            }
+            copyKey(successor, slot);
+            if (successorParent == slot) {
+                right[successorParent] = right[successor];
+            } else {
+                left[successorParent] = right[successor];
+            }
+            slot = successor;
+        } else {
+            int child = left[slot] == NIL ? right[slot] : left[slot];
+            if (parent == NIL) {
+                root = child;
+            } else if (left[parent] == slot) {
+                left[parent] = child;
+            } else {
+                right[parent] = child;
+            }
+        }
+        left[slot] = free;
+        free = slot;
+        size--;
+    }
+
+    /**
+     * Returns the slots in pre-order.
+     *
+     * @return the slots of every node, in pre-order
+     */
+    int[] preorderSlots() {
+        int[] result = new int[size];
+        int count = 0;
+        int[] stack = new int[size];
+        int top = 0;
+        if (root != NIL) {
+            stack[top++] = root;
+        }
+        while (top > 0) {
+            int slot = stack[--top];
+            result[count++] = slot;
+            if (right[slot] != NIL) {
+                stack[top++] = right[slot];
+            }
+            if (left[slot] != NIL) {
+                stack[top++] = left[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the slots in in-order, which is the sorted order of the keys.
+     *
+     * @return the slots of every node, in in-order
+     */
+    int[] inorderSlots() {
+        int[] result = new int[size];
+        int count = 0;
+        int[] stack = new int[size];
+        int top = 0;
+        int slot = root;
+        while (slot != NIL || top > 0) {
+            while (slot != NIL) {
+                stack[top++] = slot;
+                slot = left[slot];
+            }
+            slot = stack[--top];
+            result[count++] = slot;
+            slot = right[slot];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the slots in post-order.
+     *
+     * @return the slots of every node, in post-order
+     */
+    int[] postorderSlots() {
+        int[] result = new int[size];
+        int count = size;
+        int[] stack = new int[size];
+        int top = 0;
+        if (root != NIL) {
+            stack[top++] = root;
+        }
+        // Reverse post-order is a pre-order that visits right before left.
+        while (top > 0) {
+            int slot = stack[--top];
+            result[--count] = slot;
+            if (left[slot] != NIL) {
+                stack[top++] = left[slot];
+            }
+            if (right[slot] != NIL) {
+                stack[top++] = right[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the slots in level-order.
+     *
+     * @return the slots of every node, in level-order
+     */
+    int[] levelorderSlots() {
+        int[] queue = new int[size];
+        int tail = 0;
+        if (root != NIL) {
+            queue[tail++] = root;
+        }
+        for (int head = 0; head < tail; head++) {
+            int slot = queue[head];
+            if (left[slot] != NIL) {
+                queue[tail++] = left[slot];
+            }
+            if (right[slot] != NIL) {
+                queue[tail++] = right[slot];
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Returns the slots of the k largest keys, least to greatest.
+     *
+     * @param k the number of slots to return
+     * @return the slots of the k largest keys
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > size
+     */
+    int[] kLargestSlots(int k) {
+        if (k < 0 || k > size) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        }
+        int[] result = new int[k];
+        int count = k;
+        int[] stack = new int[16];
+        int top = 0;
+        int slot = root;
+        while (count > 0) {
+            while (slot != NIL) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = slot;
+                slot = right[slot];
+            }
+            slot = stack[--top];
+            result[--count] = slot;
+            slot = left[slot];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the height of the root of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        int[] queue = levelorderSlots();
+        int height = -1;
+        int levelEnd = 0;
+        int tail = root == NIL ? 0 : 1;
+        for (int head = 0; head < queue.length; head++) {
+            if (head == levelEnd) {
+                height++;
+                levelEnd = tail;
+            }
+            int slot = queue[head];
+            if (left[slot] != NIL) {
+                tail++;
+            }
+            if (right[slot] != NIL) {
+                tail++;
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Clears the tree. The arrays keep their capacity for reuse.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        root = NIL;
+        size = 0;
+        next = 1;
+        free = NIL;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
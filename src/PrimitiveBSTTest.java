@@ -0,0 +1,120 @@
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for IntBST, LongBST and DoubleBST.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class PrimitiveBSTTest {
+
+    private static final int TIMEOUT = 500;
+
+    @Test(timeout = TIMEOUT)
+    public void testIntTraversals() {
+        /*
+                  50
+                /    \
+              25      75
+             /  \
+            12   37
+        */
+
+        IntBST tree = new IntBST();
+        for (int key : new int[] {50, 25, 75, 12, 37, 37}) {
+            tree.add(key);
+        }
+
+        assertEquals(5, tree.size());
+        assertEquals(2, tree.height());
+        assertArrayEquals(new int[] {50, 25, 12, 37, 75}, tree.preorder());
+        assertArrayEquals(new int[] {12, 25, 37, 50, 75}, tree.inorder());
+        assertArrayEquals(new int[] {12, 37, 25, 75, 50}, tree.postorder());
+        assertArrayEquals(new int[] {50, 25, 75, 12, 37}, tree.levelorder());
+        assertArrayEquals(new int[] {37, 50, 75}, tree.kLargest(3));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testIntRandomMutations() {
+        Random random = new Random(1332);
+        IntBST tree = new IntBST();
+        BST<Integer> reference = new BST<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextBoolean()) {
+                tree.add(key);
+                reference.add(key);
+            } else if (reference.contains(key)) {
+                assertEquals((int) reference.remove(key), tree.remove(key));
+            }
+            assertEquals(reference.contains(key), tree.contains(key));
+        }
+
+        assertEquals(reference.size(), tree.size());
+        assertEquals(reference.height(), tree.height());
+        assertArrayEquals(reference.preorder().stream().mapToInt(Integer::intValue).toArray(), tree.preorder());
+        assertArrayEquals(reference.postorder().stream().mapToInt(Integer::intValue).toArray(), tree.postorder());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLongRandomMutations() {
+        Random random = new Random(1332);
+        LongBST tree = new LongBST();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            long key = random.nextInt(2000) * 1_000_000_000L;
+            if (random.nextBoolean()) {
+                tree.add(key);
+                expected.add(key);
+            } else if (expected.remove(key)) {
+                assertEquals(key, tree.remove(key));
+            }
+        }
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), tree.inorder());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDoubleOrdering() {
+        DoubleBST tree = new DoubleBST();
+        for (double key : new double[] {1.5, Double.NaN, 0.0, -0.0, Double.NEGATIVE_INFINITY, Double.NaN}) {
+            tree.add(key);
+        }
+
+        assertEquals(5, tree.size());
+        assertArrayEquals(new double[] {Double.NEGATIVE_INFINITY, -0.0, 0.0, 1.5, Double.NaN},
+                tree.inorder(), 0.0);
+        assertTrue(tree.contains(Double.NaN));
+        assertEquals(0.0, tree.remove(0.0), 0.0);
+        assertFalse(tree.contains(0.0));
+        assertTrue(tree.contains(-0.0));
+    }
+
+    @Test(timeout = TIMEOUT, expected = NoSuchElementException.class)
+    public void testRemoveMissing() {
+        IntBST tree = new IntBST();
+        tree.add(1);
+        tree.remove(2);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testClearReusesArrays() {
+        LongBST tree = new LongBST();
+        tree.add(1);
+        tree.add(2);
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertEquals(-1, tree.height());
+        assertFalse(tree.contains(1));
+        tree.add(3);
+        assertArrayEquals(new long[] {3}, tree.inorder());
+    }
+}
@@ -0,0 +1,515 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Variant of BST that stays balanced without storing anything in its nodes
+ * beyond data, left and right.
+ *
+ * This is a scapegoat tree (Galperin and Rivest) with alpha = 2/3. The tree
+ * only keeps its size and the largest size it has had since it was last
+ * rebuilt whole. When add places a node deeper than log_{3/2}(size), some
+ * ancestor of it must have a child holding more than 2/3 of its subtree;
+ * the lowest such ancestor, the scapegoat, is rebuilt into a perfectly
+ * balanced subtree. When remove shrinks the tree below 2/3 of that largest
+ * size, the whole tree is rebuilt. Rebuilds take time linear in the subtree
+ * and reuse its nodes, so updates are O(log n) amortized and the depth of
+ * every node, and thus every lookup, is O(log n) in the worst case.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class ScapegoatTree<T extends Comparable<? super T>> {
+
+    /**
+     * A node of the tree.
+     */
+    private static final class Node<T> {
+        private T data;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(T data) {
+            this.data = data;
+        }
+    }
+
+    private static final double LOG_THREE_HALVES = Math.log(1.5);
+
+    private Node<T> root;
+    private int size;
+    private int maxSize;
+
+    /**
+     * Constructs a new, empty ScapegoatTree.
+     */
+    public ScapegoatTree() {
+        // Nothing to initialize.
+    }
+
+    /**
+     * Constructs a new ScapegoatTree with the data in the Collection, added
+     * in the order of the Collection.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public ScapegoatTree(Collection<T> data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot build ScapegoatTree with null collection");
+        }
+        for (T element : data) {
+            if (element == null) {
+                throw new java.lang.IllegalArgumentException("cannot add null element in ScapegoatTree");
+            }
+            add(element);
+        }
+    }
+
+    /**
+     * Adds the data to the tree. If the data is already in the tree, then
+     * nothing is done. If the new node is too deep, the subtree of its
+     * scapegoat is rebuilt.
+     *
+     * Must be O(log n) amortized.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot add null data into ScapegoatTree");
+        } else if (root == null) {
+            root = new Node<>(data);
+            size = 1;
+            maxSize = 1;
+            return;
+        }
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        while (true) {
+            int compare = data.compareTo(node.data);
+            if (compare == 0) {
+                return;
+            }
+            path.push(node);
+            Node<T> child = compare < 0 ? node.left : node.right;
+            if (child == null) {
+                child = new Node<>(data);
+                if (compare < 0) {
+                    node.left = child;
+                } else {
+                    node.right = child;
+                }
+                node = child;
+                break;
+            }
+            node = child;
+        }
+        size++;
+        maxSize = Math.max(maxSize, size);
+        if (path.size() > Math.log(size) / LOG_THREE_HALVES) {
+            rebuildScapegoat(node, path);
+        }
+    }
+
+    /**
+     * Walks up from a node that is too deep to its lowest ancestor that is
+     * not 2/3-weight-balanced, and rebuilds the subtree of that ancestor.
+     * Such an ancestor always exists while the node is deeper than
+     * log_{3/2}(size).
+     *
+     * @param node the node that was just added
+     * @param path the ancestors of the node, its parent on top
+     */
+    private void rebuildScapegoat(Node<T> node, Deque<Node<T>> path) {
+        int childSize = 1;
+        Node<T> child = node;
+        while (!path.isEmpty()) {
+            Node<T> parent = path.pop();
+            Node<T> sibling = parent.left == child ? parent.right : parent.left;
+            int parentSize = childSize + 1 + count(sibling);
+            if (3 * childSize > 2 * parentSize) {
+                Node<T> rebuilt = rebuild(parent, parentSize);
+                Node<T> grandparent = path.peek();
+                if (grandparent == null) {
+                    root = rebuilt;
+                } else if (grandparent.left == parent) {
+                    grandparent.left = rebuilt;
+                } else {
+                    grandparent.right = rebuilt;
+                }
+                return;
+            }
+            child = parent;
+            childSize = parentSize;
+        }
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given
+     * parameter. If the tree has shrunk below 2/3 of its largest size since
+     * the last full rebuild, the whole tree is rebuilt.
+     *
+     * Must be O(log n) amortized.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot remove null data");
+        } else if (root == null) {
+            throw new java.util.NoSuchElementException("cannot remove for empty ScapegoatTree");
+        }
+        Node<T> parent = null;
+        Node<T> node = root;
+        int compare = data.compareTo(node.data);
+        while (compare != 0) {
+            parent = node;
+            node = compare < 0 ? node.left : node.right;
+            if (node == null) {
+                throw new java.util.NoSuchElementException("cannot remove data if data is not in ScapegoatTree");
+            }
+            compare = data.compareTo(node.data);
+        }
+        T removed = node.data;
+        if (node.left != null && node.right != null) {
+            // Move the successor's data up and unlink the successor instead.
+            Node<T> successorParent = node;
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successorParent = successor;
+                successor = successor.left;
+            }
+            node.data = successor.data;
+            parent = successorParent;
+            node = successor;
+        }
+        Node<T> child = node.left == null ? node.right : node.left;
+        if (parent == null) {
+            root = child;
+        } else if (parent.left == node) {
+            parent.left = child;
+        } else {
+            parent.right = child;
+        }
+        size--;
+        if (3 * size < 2 * maxSize) {
+            root = rebuild(root, size);
+            maxSize = size;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of nodes in a subtree.
+     *
+     * @param node the root of the subtree, or null
+     * @return the number of nodes
+     */
+    private int count(Node<T> node) {
+        int count = 0;
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        if (node != null) {
+            stack.push(node);
+        }
+        while (!stack.isEmpty()) {
+            Node<T> top = stack.pop();
+            count++;
+            if (top.left != null) {
+                stack.push(top.left);
+            }
+            if (top.right != null) {
+                stack.push(top.right);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rebuilds a subtree into a perfectly balanced one, relinking its own
+     * nodes rather than allocating new ones.
+     *
+     * @param node  the root of the subtree, or null
+     * @param count the number of nodes in the subtree
+     * @return the root of the rebuilt subtree
+     */
+    @SuppressWarnings("unchecked")
+    private Node<T> rebuild(Node<T> node, int count) {
+        Node<T>[] nodes = (Node<T>[]) new Node<?>[count];
+        int index = 0;
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            nodes[index++] = node;
+            node = node.right;
+        }
+        return link(nodes, 0, count);
+    }
+
+    /**
+     * Links a sorted range of nodes into a balanced subtree.
+     *
+     * The recursion depth is O(log n), since each call halves the range.
+     *
+     * @param nodes the nodes in order
+     * @param from  the first index of the range, inclusive
+     * @param to    the last index of the range, exclusive
+     * @return the root of the subtree, or null if the range is empty
+     */
+    private Node<T> link(Node<T>[] nodes, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node<T> node = nodes[mid];
+        node.left = link(nodes, from, mid);
+        node.right = link(nodes, mid + 1, to);
+        return node;
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot get data if data is null");
+        }
+        Node<T> node = find(data);
+        if (node == null) {
+            throw new java.util.NoSuchElementException("cannot get data if data is not in ScapegoatTree");
+        }
+        return node.data;
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n).
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("ScapegoatTree doesn't contain null data");
+        }
+        return find(data) != null;
+    }
+
+    private Node<T> find(T data) {
+        Node<T> node = root;
+        while (node != null) {
+            int compare = data.compareTo(node.data);
+            if (compare == 0) {
+                return node;
+            }
+            node = compare < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Generate a pre-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the preorder traversal of the tree
+     */
+    public List<T> preorder() {
+        List<T> list = new ArrayList<>(size);
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            list.add(node.data);
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Generate an in-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        List<T> list = new ArrayList<>(size);
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            list.add(node.data);
+            node = node.right;
+        }
+        return list;
+    }
+
+    /**
+     * Generate a post-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the postorder traversal of the tree
+     */
+    public List<T> postorder() {
+        List<T> list = new ArrayList<>(size);
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        Node<T> lastVisited = null;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            Node<T> top = stack.peek();
+            if (top.right != null && top.right != lastVisited) {
+                node = top.right;
+            } else {
+                list.add(top.data);
+                lastVisited = stack.pop();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Generate a level-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the level order traversal of the tree
+     */
+    public List<T> levelorder() {
+        Queue<Node<T>> queue = new ArrayDeque<>();
+        List<T> list = new ArrayList<>(size);
+        if (root != null) {
+            queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            Node<T> node = queue.remove();
+            list.add(node.data);
+            if (node.left != null) {
+                queue.add(node.left);
+            }
+            if (node.right != null) {
+                queue.add(node.right);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the height of the root of the tree. Nodes do not store their
+     * heights, so this walks the tree level by level.
+     *
+     * Must be O(n).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        Queue<Node<T>> queue = new ArrayDeque<>();
+        int height = -1;
+        if (root != null) {
+            queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            height++;
+            for (int i = queue.size(); i > 0; i--) {
+                Node<T> node = queue.remove();
+                if (node.left != null) {
+                    queue.add(node.left);
+                }
+                if (node.right != null) {
+                    queue.add(node.right);
+                }
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Finds and retrieves the k-largest elements from the tree in sorted
+     * order, least to greatest.
+     *
+     * Must be O(log(n) + k).
+     *
+     * @param k the number of largest elements to return
+     * @return sorted list consisting of the k largest elements
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of data in the tree
+     */
+    public List<T> kLargest(int k) {
+        if (k < 0 || k > size) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        }
+        LinkedList<T> list = new LinkedList<>();
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (list.size() < k) {
+            while (node != null) {
+                stack.push(node);
+                node = node.right;
+            }
+            node = stack.pop();
+            list.addFirst(node.data);
+            node = node.left;
+        }
+        return list;
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+        maxSize = 0;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,117 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for ScapegoatTree.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class ScapegoatTreeTest {
+
+    private static final int TIMEOUT = 2000;
+    private ScapegoatTree<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new ScapegoatTree<>();
+    }
+
+    /**
+     * The deepest a node can be in a 2/3-balanced tree of the given size.
+     */
+    private static int maxHeight(int size) {
+        return (int) Math.floor(Math.log(size) / Math.log(1.5)) + 1;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSortedInputStaysBalanced() {
+        /*
+            1 to 5 in order: 5 lands at depth 4 > log_{3/2}(5), and 2 is the
+            lowest ancestor with a child holding more than 2/3 of its nodes,
+            so the path 2-3-4-5 is rebuilt.
+
+                        1
+                         \
+                          4
+                         / \
+                        3   5
+                       /
+                      2
+         */
+        for (int i = 1; i <= 4; i++) {
+            tree.add(i);
+        }
+        assertEquals(3, tree.height());
+        tree.add(5);
+        assertEquals(List.of(1, 4, 3, 2, 5), tree.preorder());
+        for (int i = 6; i <= 100000; i++) {
+            tree.add(i);
+        }
+        assertEquals(100000, tree.size());
+        assertTrue(tree.height() <= maxHeight(100000));
+        assertEquals((Integer) 777, tree.get(777));
+        assertEquals(List.of(99999, 100000), tree.kLargest(2));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testShrinkingRebuildsWholeTree() {
+        for (int i = 0; i < 3000; i++) {
+            tree.add(i);
+        }
+        // Removing the left half leaves a lopsided tree until the size drops below 2/3 of its maximum.
+        for (int i = 0; i < 1001; i++) {
+            assertEquals((Integer) i, tree.remove(i));
+        }
+        assertEquals(1999, tree.size());
+        assertEquals(10, tree.height());
+        assertFalse(tree.contains(0));
+        assertTrue(tree.contains(1001));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRandomOperationsAgainstTreeSet() {
+        Random random = new Random(1989);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(2000);
+            switch (random.nextInt(3)) {
+                case 0:
+                    expected.add(value);
+                    tree.add(value);
+                    break;
+                case 1:
+                    if (expected.remove(value)) {
+                        assertEquals((Integer) value, tree.remove(value));
+                    } else {
+                        try {
+                            tree.remove(value);
+                            throw new AssertionError("removed missing data");
+                        } catch (NoSuchElementException e) {
+                            assertEquals(expected.size(), tree.size());
+                        }
+                    }
+                    break;
+                default:
+                    assertEquals(expected.contains(value), tree.contains(value));
+                    break;
+            }
+            if (!expected.isEmpty()) {
+                assertTrue(tree.height() <= maxHeight(expected.size()) + 1);
+            }
+        }
+        assertEquals(new ArrayList<>(expected), tree.inorder());
+        assertEquals(expected.size(), tree.postorder().size());
+        assertEquals(expected.size(), tree.levelorder().size());
+    }
+}
@@ -0,0 +1,428 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Self-adjusting variant of BST for skewed workloads.
+ *
+ * Every add, remove, get and contains splays: it moves the node it reaches
+ * to the root with zig-zig and zig-zag rotations. Keys that are accessed
+ * often therefore stay near the root, and any sequence of m operations
+ * costs O(m log n) in total, even though a single one may take O(n). Under
+ * a skewed workload the hot keys sit a few levels down regardless of where
+ * they were first inserted.
+ *
+ * Splaying is done top-down in one pass (Sleator and Tarjan): the tree is
+ * split into a left tree, a right tree and a middle tree while descending,
+ * and reassembled at the end, so no parent pointers, path stack or
+ * recursion are needed. Because lookups restructure the tree, even get and
+ * contains are writes, and the tree is not thread-safe for readers either.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class SplayTree<T extends Comparable<? super T>> {
+
+    /**
+     * A node of the tree.
+     */
+    private static final class Node<T> {
+        private T data;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(T data) {
+            this.data = data;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Constructs a new, empty SplayTree.
+     */
+    public SplayTree() {
+        // Nothing to initialize.
+    }
+
+    /**
+     * Constructs a new SplayTree with the data in the Collection, added in
+     * the order of the Collection.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public SplayTree(Collection<T> data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot build SplayTree with null collection");
+        }
+        for (T element : data) {
+            if (element == null) {
+                throw new java.lang.IllegalArgumentException("cannot add null element in SplayTree");
+            }
+            add(element);
+        }
+    }
+
+    /**
+     * Splays the subtree: moves the node holding the data, or else the last
+     * node on the search path for it, to the root.
+     *
+     * @param node the root of the subtree, not null
+     * @param data the data to search for
+     * @return the new root of the subtree
+     */
+    private Node<T> splay(Node<T> node, T data) {
+        Node<T> header = new Node<>(null);
+        // Largest node of the left tree and smallest node of the right tree.
+        Node<T> leftMax = header;
+        Node<T> rightMin = header;
+        while (true) {
+            int compare = data.compareTo(node.data);
+            if (compare < 0) {
+                if (node.left == null) {
+                    break;
+                }
+                if (data.compareTo(node.left.data) < 0) {
+                    // Zig-zig: rotate right before linking.
+                    Node<T> child = node.left;
+                    node.left = child.right;
+                    child.right = node;
+                    node = child;
+                    if (node.left == null) {
+                        break;
+                    }
+                }
+                rightMin.left = node;
+                rightMin = node;
+                node = node.left;
+            } else if (compare > 0) {
+                if (node.right == null) {
+                    break;
+                }
+                if (data.compareTo(node.right.data) > 0) {
+                    // Zig-zig: rotate left before linking.
+                    Node<T> child = node.right;
+                    node.right = child.left;
+                    child.left = node;
+                    node = child;
+                    if (node.right == null) {
+                        break;
+                    }
+                }
+                leftMax.right = node;
+                leftMax = node;
+                node = node.right;
+            } else {
+                break;
+            }
+        }
+        leftMax.right = node.left;
+        rightMin.left = node.right;
+        node.left = header.right;
+        node.right = header.left;
+        return node;
+    }
+
+    /**
+     * Adds the data to the tree and splays it to the root. If the data is
+     * already in the tree, then it is only splayed.
+     *
+     * Must be O(log n) amortized and O(n) for worst case.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot add null data into SplayTree");
+        } else if (root == null) {
+            root = new Node<>(data);
+            size++;
+            return;
+        }
+        root = splay(root, data);
+        int compare = data.compareTo(root.data);
+        if (compare == 0) {
+            return;
+        }
+        Node<T> node = new Node<>(data);
+        if (compare < 0) {
+            node.left = root.left;
+            node.right = root;
+            root.left = null;
+        } else {
+            node.right = root.right;
+            node.left = root;
+            root.right = null;
+        }
+        root = node;
+        size++;
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given
+     * parameter. The tree is splayed even if the data is not found.
+     *
+     * Must be O(log n) amortized and O(n) for worst case.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot remove null data");
+        } else if (root == null) {
+            throw new java.util.NoSuchElementException("cannot remove for empty SplayTree");
+        }
+        root = splay(root, data);
+        if (data.compareTo(root.data) != 0) {
+            throw new java.util.NoSuchElementException("cannot remove data if data is not in SplayTree");
+        }
+        T removed = root.data;
+        if (root.left == null) {
+            root = root.right;
+        } else {
+            // Every data on the left is smaller, so splaying brings its maximum up with no right child.
+            Node<T> left = splay(root.left, data);
+            left.right = root.right;
+            root = left;
+        }
+        size--;
+        return removed;
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter and
+     * splays it to the root.
+     *
+     * Must be O(log n) amortized and O(n) for worst case.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot get data if data is null");
+        } else if (root == null) {
+            throw new java.util.NoSuchElementException("cannot get data in empty SplayTree");
+        }
+        root = splay(root, data);
+        if (data.compareTo(root.data) != 0) {
+            throw new java.util.NoSuchElementException("cannot get data if data is not in SplayTree");
+        }
+        return root.data;
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree, splaying the last node reached to the root.
+     *
+     * Must be O(log n) amortized and O(n) for worst case.
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("SplayTree doesn't contain null data");
+        } else if (root == null) {
+            return false;
+        }
+        root = splay(root, data);
+        return data.compareTo(root.data) == 0;
+    }
+
+    /**
+     * Generate a pre-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the preorder traversal of the tree
+     */
+    public List<T> preorder() {
+        List<T> list = new ArrayList<>(size);
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            list.add(node.data);
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Generate an in-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        List<T> list = new ArrayList<>(size);
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            list.add(node.data);
+            node = node.right;
+        }
+        return list;
+    }
+
+    /**
+     * Generate a post-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the postorder traversal of the tree
+     */
+    public List<T> postorder() {
+        List<T> list = new ArrayList<>(size);
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        Node<T> lastVisited = null;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            Node<T> top = stack.peek();
+            if (top.right != null && top.right != lastVisited) {
+                node = top.right;
+            } else {
+                list.add(top.data);
+                lastVisited = stack.pop();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Generate a level-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the level order traversal of the tree
+     */
+    public List<T> levelorder() {
+        Queue<Node<T>> queue = new ArrayDeque<>();
+        List<T> list = new ArrayList<>(size);
+        if (root != null) {
+            queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            Node<T> node = queue.remove();
+            list.add(node.data);
+            if (node.left != null) {
+                queue.add(node.left);
+            }
+            if (node.right != null) {
+                queue.add(node.right);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the height of the root of the tree. Heights change with every
+     * access, so they are not cached; this walks the tree level by level.
+     *
+     * Must be O(n).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        Queue<Node<T>> queue = new ArrayDeque<>();
+        int height = -1;
+        if (root != null) {
+            queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            height++;
+            for (int i = queue.size(); i > 0; i--) {
+                Node<T> node = queue.remove();
+                if (node.left != null) {
+                    queue.add(node.left);
+                }
+                if (node.right != null) {
+                    queue.add(node.right);
+                }
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Finds and retrieves the k-largest elements from the tree in sorted
+     * order, least to greatest. This does not splay.
+     *
+     * Must be O(log(n) + k) amortized and O(n + k) for worst case.
+     *
+     * @param k the number of largest elements to return
+     * @return sorted list consisting of the k largest elements
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of data in the tree
+     */
+    public List<T> kLargest(int k) {
+        if (k < 0 || k > size) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        }
+        LinkedList<T> list = new LinkedList<>();
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (list.size() < k) {
+            while (node != null) {
+                stack.push(node);
+                node = node.right;
+            }
+            node = stack.pop();
+            list.addFirst(node.data);
+            node = node.left;
+        }
+        return list;
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,117 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for SplayTree.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class SplayTreeTest {
+
+    private static final int TIMEOUT = 2000;
+    private SplayTree<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new SplayTree<>();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAccessSplaysToRoot() {
+        /*
+                    3
+                   /        contains(1) rotates 3 down and splays 1 up:
+                  2
+                 /                  1
+                1                    \
+                                      2
+                                       \
+                                        3
+         */
+        tree.add(1);
+        tree.add(2);
+        tree.add(3);
+        assertEquals(List.of(3, 2, 1), tree.preorder());
+        assertTrue(tree.contains(1));
+        assertEquals(List.of(1, 2, 3), tree.preorder());
+        assertEquals((Integer) 2, tree.get(2));
+        assertEquals(2, (int) tree.preorder().get(0));
+        assertFalse(tree.contains(4));
+        assertEquals(3, (int) tree.preorder().get(0));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSortedInputStaysStackSafe() {
+        for (int i = 0; i < 100000; i++) {
+            tree.add(i);
+        }
+        // Sorted adds build a path, and the first lookup of the far end halves its depth.
+        assertEquals(99999, tree.height());
+        assertTrue(tree.contains(0));
+        assertTrue(tree.height() < 60000);
+        assertEquals(100000, tree.inorder().size());
+        assertEquals(List.of(99998, 99999), tree.kLargest(2));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRandomOperationsAgainstTreeSet() {
+        Random random = new Random(1982);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(2000);
+            switch (random.nextInt(4)) {
+                case 0:
+                    expected.add(value);
+                    tree.add(value);
+                    break;
+                case 1:
+                    if (expected.remove(value)) {
+                        assertEquals((Integer) value, tree.remove(value));
+                    } else {
+                        try {
+                            tree.remove(value);
+                            throw new AssertionError("removed missing data");
+                        } catch (NoSuchElementException e) {
+                            assertEquals(expected.size(), tree.size());
+                        }
+                    }
+                    break;
+                default:
+                    assertEquals(expected.contains(value), tree.contains(value));
+                    break;
+            }
+        }
+        assertEquals(new ArrayList<>(expected), tree.inorder());
+        assertEquals(expected.size(), tree.size());
+        assertEquals(expected.size(), tree.postorder().size());
+        assertEquals(expected.size(), tree.levelorder().size());
+        assertEquals(new ArrayList<>(expected).subList(expected.size() - 10, expected.size()), tree.kLargest(10));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testHotKeysStayShallow() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            tree.add(random.nextInt());
+        }
+        List<Integer> data = tree.inorder();
+        List<Integer> hot = data.subList(0, 5);
+        for (int i = 0; i < 1000; i++) {
+            tree.contains(hot.get(i % hot.size()));
+        }
+        // After cycling over five keys, all of them sit within the top few levels.
+        List<Integer> top = tree.levelorder().subList(0, 15);
+        assertTrue(top.containsAll(hot));
+    }
+}
@@ -0,0 +1,553 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * Randomized variant of BST that can be cut at a key and glued back
+ * together in logarithmic time.
+ *
+ * Each node gets a random priority when it is added, and the tree is kept
+ * a heap on those priorities as well as a search tree on the data. Its
+ * shape is then that of a BST built by adding the data in random order, so
+ * its depth is O(log n) expected whatever order the data actually arrives
+ * in. Every node also stores the size of its subtree, so the size of either
+ * part of a split is known without counting.
+ *
+ * split() and join() are what the other operations are built on: a split
+ * walks one path down, sending each node to the part its data belongs to,
+ * and a join zips the right spine of one tree into the left spine of the
+ * other by priority. Both are iterative and touch only the nodes on those
+ * paths. This makes windowed workloads cheap: split off everything older
+ * than a cutoff and drop it, or join a batch of newer data onto the end.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class Treap<T extends Comparable<? super T>> {
+
+    /**
+     * A node of the tree.
+     */
+    private static final class Node<T> {
+        private final T data;
+        private final int priority;
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        private Node(T data, int priority) {
+            this.data = data;
+            this.priority = priority;
+        }
+    }
+
+    private final Random random = new Random();
+    private Node<T> root;
+
+    /**
+     * Constructs a new, empty Treap.
+     */
+    public Treap() {
+        // Nothing to initialize.
+    }
+
+    /**
+     * Constructs a new Treap with the data in the Collection, added in the
+     * order of the Collection.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data or any element in data
+     *                                            is null
+     */
+    public Treap(Collection<T> data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot build Treap with null collection");
+        }
+        for (T element : data) {
+            if (element == null) {
+                throw new java.lang.IllegalArgumentException("cannot add null element in Treap");
+            }
+            add(element);
+        }
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Recomputes the subtree sizes of the nodes on a path, deepest first.
+     *
+     * @param path the nodes whose subtrees changed, deepest on top
+     */
+    private static void resize(Deque<? extends Node<?>> path) {
+        while (!path.isEmpty()) {
+            Node<?> node = path.pop();
+            node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+        }
+    }
+
+    /**
+     * Splits a subtree by the data.
+     *
+     * @param node the root of the subtree, or null
+     * @param data the data to split at
+     * @return a header node whose left is the part less than the data and
+     * whose right is the rest
+     */
+    private static <T extends Comparable<? super T>> Node<T> splitNodes(Node<T> node, T data) {
+        Node<T> header = new Node<>(null, 0);
+        // The less part grows down its right spine, the rest down its left spine.
+        Node<T> lessTail = null;
+        Node<T> restTail = null;
+        Deque<Node<T>> path = new ArrayDeque<>();
+        while (node != null) {
+            path.push(node);
+            if (node.data.compareTo(data) < 0) {
+                if (lessTail == null) {
+                    header.left = node;
+                } else {
+                    lessTail.right = node;
+                }
+                lessTail = node;
+                node = node.right;
+            } else {
+                if (restTail == null) {
+                    header.right = node;
+                } else {
+                    restTail.left = node;
+                }
+                restTail = node;
+                node = node.left;
+            }
+        }
+        if (lessTail != null) {
+            lessTail.right = null;
+        }
+        if (restTail != null) {
+            restTail.left = null;
+        }
+        resize(path);
+        return header;
+    }
+
+    /**
+     * Joins two subtrees where all the data in the first is less than all
+     * the data in the second.
+     *
+     * @param less    the root of the lesser subtree, or null
+     * @param greater the root of the greater subtree, or null
+     * @return the root of the joined subtree
+     */
+    private static <T> Node<T> joinNodes(Node<T> less, Node<T> greater) {
+        Node<T> header = new Node<>(null, 0);
+        Node<T> parent = header;
+        boolean onRight = true;
+        Deque<Node<T>> path = new ArrayDeque<>();
+        while (less != null && greater != null) {
+            // The node of higher priority goes on top; its inner child is what is left to join.
+            Node<T> top = less.priority >= greater.priority ? less : greater;
+            if (onRight) {
+                parent.right = top;
+            } else {
+                parent.left = top;
+            }
+            path.push(top);
+            parent = top;
+            if (top == less) {
+                less = less.right;
+                onRight = true;
+            } else {
+                greater = greater.left;
+                onRight = false;
+            }
+        }
+        Node<T> rest = less == null ? greater : less;
+        if (onRight) {
+            parent.right = rest;
+        } else {
+            parent.left = rest;
+        }
+        resize(path);
+        return header.right;
+    }
+
+    /**
+     * Adds the data to the tree. If the data is already in the tree, then
+     * nothing is done.
+     *
+     * The new node is placed by its priority, where it splits the subtree it
+     * lands on into its two children.
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to add
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void add(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot add null data into Treap");
+        } else if (find(data) != null) {
+            return;
+        }
+        Node<T> node = new Node<>(data, random.nextInt());
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> parent = null;
+        Node<T> current = root;
+        while (current != null && current.priority > node.priority) {
+            parent = current;
+            path.push(parent);
+            current = data.compareTo(current.data) < 0 ? current.left : current.right;
+        }
+        Node<T> parts = splitNodes(current, data);
+        node.left = parts.left;
+        node.right = parts.right;
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+        if (parent == null) {
+            root = node;
+        } else if (data.compareTo(parent.data) < 0) {
+            parent.left = node;
+        } else {
+            parent.right = node;
+        }
+        resize(path);
+    }
+
+    /**
+     * Removes and returns the data from the tree matching the given
+     * parameter. Its children are joined in its place.
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to remove
+     * @return the data that was removed
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T remove(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot remove null data");
+        } else if (root == null) {
+            throw new java.util.NoSuchElementException("cannot remove for empty Treap");
+        }
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> parent = null;
+        Node<T> node = root;
+        int compare = data.compareTo(node.data);
+        while (compare != 0) {
+            parent = node;
+            path.push(parent);
+            node = compare < 0 ? node.left : node.right;
+            if (node == null) {
+                throw new java.util.NoSuchElementException("cannot remove data if data is not in Treap");
+            }
+            compare = data.compareTo(node.data);
+        }
+        Node<T> joined = joinNodes(node.left, node.right);
+        if (parent == null) {
+            root = joined;
+        } else if (parent.left == node) {
+            parent.left = joined;
+        } else {
+            parent.right = joined;
+        }
+        resize(path);
+        return node.data;
+    }
+
+    /**
+     * Removes every data less than the given data from this tree and
+     * returns them as a new Treap. The given data itself, if present, stays.
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to split at
+     * @return a Treap of the data that was less than the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public Treap<T> split(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot split at null data");
+        }
+        Node<T> parts = splitNodes(root, data);
+        Treap<T> less = new Treap<>();
+        less.root = parts.left;
+        root = parts.right;
+        return less;
+    }
+
+    /**
+     * Moves all the data of another Treap into this one, leaving the other
+     * empty. All of its data must be either less than or greater than all
+     * the data in this tree.
+     *
+     * Must be O(log n + log m) expected, where m is the size of the other
+     * tree.
+     *
+     * @param other the tree to join into this one
+     * @throws java.lang.IllegalArgumentException if other is null or this
+     *                                            tree, or if the ranges of
+     *                                            the two trees overlap
+     */
+    public void join(Treap<T> other) {
+        if (other == null) {
+            throw new java.lang.IllegalArgumentException("cannot join null Treap");
+        } else if (other == this) {
+            throw new java.lang.IllegalArgumentException("cannot join a Treap with itself");
+        } else if (other.root == null) {
+            return;
+        } else if (root == null) {
+            root = other.root;
+        } else if (extreme(root, false).compareTo(extreme(other.root, true)) < 0) {
+            root = joinNodes(root, other.root);
+        } else if (extreme(other.root, false).compareTo(extreme(root, true)) < 0) {
+            root = joinNodes(other.root, root);
+        } else {
+            throw new java.lang.IllegalArgumentException("cannot join Treaps whose data overlap");
+        }
+        other.root = null;
+    }
+
+    private static <T> T extreme(Node<T> node, boolean least) {
+        while ((least ? node.left : node.right) != null) {
+            node = least ? node.left : node.right;
+        }
+        return node.data;
+    }
+
+    /**
+     * Returns the data from the tree matching the given parameter.
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to search for
+     * @return the data in the tree equal to the parameter
+     * @throws java.lang.IllegalArgumentException if data is null
+     * @throws java.util.NoSuchElementException   if the data is not in the tree
+     */
+    public T get(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("cannot get data if data is null");
+        }
+        Node<T> node = find(data);
+        if (node == null) {
+            throw new java.util.NoSuchElementException("cannot get data if data is not in Treap");
+        }
+        return node.data;
+    }
+
+    /**
+     * Returns whether or not data matching the given parameter is contained
+     * within the tree.
+     *
+     * Must be O(log n) expected.
+     *
+     * @param data the data to search for
+     * @return true if the parameter is contained within the tree, false
+     * otherwise
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean contains(T data) {
+        if (data == null) {
+            throw new java.lang.IllegalArgumentException("Treap doesn't contain null data");
+        }
+        return find(data) != null;
+    }
+
+    private Node<T> find(T data) {
+        Node<T> node = root;
+        while (node != null) {
+            int compare = data.compareTo(node.data);
+            if (compare == 0) {
+                return node;
+            }
+            node = compare < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Generate a pre-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the preorder traversal of the tree
+     */
+    public List<T> preorder() {
+        List<T> list = new ArrayList<>(size());
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            list.add(node.data);
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Generate an in-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the inorder traversal of the tree
+     */
+    public List<T> inorder() {
+        List<T> list = new ArrayList<>(size());
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            list.add(node.data);
+            node = node.right;
+        }
+        return list;
+    }
+
+    /**
+     * Generate a post-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the postorder traversal of the tree
+     */
+    public List<T> postorder() {
+        List<T> list = new ArrayList<>(size());
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        Node<T> lastVisited = null;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            Node<T> top = stack.peek();
+            if (top.right != null && top.right != lastVisited) {
+                node = top.right;
+            } else {
+                list.add(top.data);
+                lastVisited = stack.pop();
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Generate a level-order traversal of the tree.
+     *
+     * Must be O(n).
+     *
+     * @return the level order traversal of the tree
+     */
+    public List<T> levelorder() {
+        Queue<Node<T>> queue = new ArrayDeque<>();
+        List<T> list = new ArrayList<>(size());
+        if (root != null) {
+            queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            Node<T> node = queue.remove();
+            list.add(node.data);
+            if (node.left != null) {
+                queue.add(node.left);
+            }
+            if (node.right != null) {
+                queue.add(node.right);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the height of the root of the tree. Nodes do not store their
+     * heights, so this walks the tree level by level.
+     *
+     * Must be O(n).
+     *
+     * @return the height of the root of the tree, -1 if the tree is empty
+     */
+    public int height() {
+        Queue<Node<T>> queue = new ArrayDeque<>();
+        int height = -1;
+        if (root != null) {
+            queue.add(root);
+        }
+        while (!queue.isEmpty()) {
+            height++;
+            for (int i = queue.size(); i > 0; i--) {
+                Node<T> node = queue.remove();
+                if (node.left != null) {
+                    queue.add(node.left);
+                }
+                if (node.right != null) {
+                    queue.add(node.right);
+                }
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Finds and retrieves the k-largest elements from the tree in sorted
+     * order, least to greatest.
+     *
+     * Must be O(log(n) + k) expected.
+     *
+     * @param k the number of largest elements to return
+     * @return sorted list consisting of the k largest elements
+     * @throws java.lang.IllegalArgumentException if k < 0 or k > n, the number
+     *                                            of data in the tree
+     */
+    public List<T> kLargest(int k) {
+        if (k < 0 || k > size()) {
+            throw new java.lang.IllegalArgumentException("cannot have a list longer than size");
+        }
+        LinkedList<T> list = new LinkedList<>();
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (list.size() < k) {
+            while (node != null) {
+                stack.push(node);
+                node = node.right;
+            }
+            node = stack.pop();
+            list.addFirst(node.data);
+            node = node.left;
+        }
+        return list;
+    }
+
+    /**
+     * Clears the tree.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Returns the size of the tree.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return sizeOf(root);
+    }
+}
@@ -0,0 +1,139 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for Treap.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ */
+public class TreapTest {
+
+    private static final int TIMEOUT = 2000;
+    private Treap<Integer> tree;
+
+    @Before
+    public void setup() {
+        tree = new Treap<>();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSortedInputStaysShallow() {
+        for (int i = 0; i < 100000; i++) {
+            tree.add(i);
+        }
+        assertEquals(100000, tree.size());
+        // Expected depth is about 2.99 ln n = 34; a chain would be 99999.
+        assertTrue(tree.height() < 80);
+        assertEquals((Integer) 4242, tree.get(4242));
+        assertEquals(List.of(99998, 99999), tree.kLargest(2));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRandomOperationsAgainstTreeSet() {
+        Random random = new Random(1997);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(2000);
+            switch (random.nextInt(3)) {
+                case 0:
+                    expected.add(value);
+                    tree.add(value);
+                    break;
+                case 1:
+                    if (expected.remove(value)) {
+                        assertEquals((Integer) value, tree.remove(value));
+                    } else {
+                        try {
+                            tree.remove(value);
+                            fail("removed missing data");
+                        } catch (NoSuchElementException e) {
+                            assertEquals(expected.size(), tree.size());
+                        }
+                    }
+                    break;
+                default:
+                    assertEquals(expected.contains(value), tree.contains(value));
+                    break;
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+        assertEquals(new ArrayList<>(expected), tree.inorder());
+        assertEquals(expected.size(), tree.preorder().size());
+        assertEquals(expected.size(), tree.postorder().size());
+        assertEquals(expected.size(), tree.levelorder().size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSplitAndJoin() {
+        for (int i = 0; i < 1000; i++) {
+            tree.add(i);
+        }
+        Treap<Integer> less = tree.split(400);
+        assertEquals(400, less.size());
+        assertEquals(600, tree.size());
+        assertEquals((Integer) 399, less.kLargest(1).get(0));
+        assertEquals((Integer) 400, tree.inorder().get(0));
+        assertFalse(less.contains(400));
+
+        // A split past either end moves everything or nothing.
+        assertEquals(0, tree.split(-1).size());
+        Treap<Integer> all = less.split(5000);
+        assertEquals(0, less.size());
+        assertEquals(400, all.size());
+
+        // Joining works with the other tree on either side.
+        tree.join(all);
+        assertEquals(0, all.size());
+        assertEquals(1000, tree.size());
+        Treap<Integer> more = new Treap<>(List.of(1000, 1001));
+        tree.join(more);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1002; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, tree.inorder());
+
+        try {
+            tree.join(new Treap<>(List.of(500, 2000)));
+            fail("joined overlapping Treap");
+        } catch (IllegalArgumentException e) {
+            assertEquals(1002, tree.size());
+        }
+        try {
+            tree.join(tree);
+            fail("joined Treap with itself");
+        } catch (IllegalArgumentException e) {
+            assertEquals(1002, tree.size());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSlidingWindow() {
+        // Keep the last 1000 timestamps: join each new batch on the right, split the expired ones off the left.
+        for (int batch = 0; batch < 200; batch++) {
+            Treap<Integer> incoming = new Treap<>();
+            for (int i = 0; i < 100; i++) {
+                incoming.add(batch * 100 + i);
+            }
+            tree.join(incoming);
+            int cutoff = (batch + 1) * 100 - 1000;
+            Treap<Integer> expired = tree.split(cutoff);
+            assertEquals(batch < 10 ? 0 : 100, expired.size());
+            assertEquals(Math.min(1000, (batch + 1) * 100), tree.size());
+        }
+        assertEquals((Integer) 19000, tree.inorder().get(0));
+        assertTrue(tree.height() < 40);
+    }
+}
@@ -0,0 +1,287 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the mutations of a DurableBST.
+ *
+ * Each record is the payload length (4 bytes), the CRC32 of the payload
+ * (4 bytes) and the payload: the operation (1 byte) and the key, encoded by
+ * the codec.
+ *
+ * Appending only copies the record into a memory buffer; sync() makes it
+ * durable with group commit. The first thread to sync becomes the leader:
+ * it waits up to the commit delay so that other threads can append, then
+ * writes the whole buffer and forces it to disk once for all of them. The
+ * threads whose records were in that batch return without touching the
+ * disk, and the next thread that still needs a sync leads the next batch.
+ * One fsync thus covers as many mutations as arrive within the delay.
+ *
+ * @author Yueqiao Chen
+ * @version 1.0
+ * @param <T> the type of the keys
+ */
+class WriteAheadLog<T> implements AutoCloseable {
+
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+
+    private static final int HEADER = 2 * Integer.BYTES;
+    private static final int INITIAL_BUFFER = 1 << 12;
+
+    private final FileChannel channel;
+    private final KeyCodec<T> codec;
+    private final long commitDelayNanos;
+    private final CRC32 crc = new CRC32();
+
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+    private long appended;
+    private long durable;
+    private boolean flushing;
+    private volatile IOException failure;
+
+    /**
+     * Opens the log for appending, creating it if it does not exist.
+     *
+     * @param path             the log file
+     * @param codec            the encoding of the keys
+     * @param commitDelayNanos how long a leader waits for more records
+     * @throws java.io.IOException if the file cannot be opened
+     */
+    WriteAheadLog(Path path, KeyCodec<T> codec, long commitDelayNanos) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.channel.position(channel.size());
+        this.codec = codec;
+        this.commitDelayNanos = commitDelayNanos;
+    }
+
+    /**
+     * Replays the valid records of a log, in order, and cuts off the rest.
+     *
+     * A crash can leave a partly written record at the end of the log. The
+     * replay stops at the first record that is truncated or fails its CRC,
+     * and the file is truncated there so that new records follow the last
+     * good one.
+     *
+     * @param path   the log file; nothing happens if it does not exist
+     * @param codec  the encoding of the keys
+     * @param replay receives the operation and the key of each record
+     * @param <T>    the type of the keys
+     * @return the number of records replayed
+     * @throws java.io.IOException if the file cannot be read
+     */
+    static <T> long replay(Path path, KeyCodec<T> codec, BiConsumer<Byte, T> replay) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long fileSize = Files.size(path);
+        long records = 0;
+        long valid = 0;
+        CRC32 crc = new CRC32();
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < 1 || length > fileSize) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                byte operation = payload[0];
+                T key;
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(payload, 1, length - 1);
+                    key = codec.read(buffer);
+                    if (buffer.hasRemaining() || (operation != ADD && operation != REMOVE)) {
+                        break;
+                    }
+                } catch (RuntimeException e) {
+                    break;
+                }
+                replay.accept(operation, key);
+                records++;
+                valid += HEADER + length;
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() > valid) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Adds a record to the in-memory batch. The record is not durable until
+     * sync() is called with the returned sequence number.
+     *
+     * @param operation ADD or REMOVE
+     * @param key       the key
+     * @return the sequence number of the record
+     */
+    synchronized long append(byte operation, T key) {
+        int length = 1 + codec.size(key);
+        if (pending.remaining() < HEADER + length) {
+            int capacity = Math.max(pending.capacity() * 2, pending.position() + HEADER + length);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        int start = pending.position();
+        pending.putInt(length).putInt(0).put(operation);
+        codec.write(key, pending);
+        crc.reset();
+        crc.update(pending.array(), start + HEADER, length);
+        pending.putInt(start + Integer.BYTES, (int) crc.getValue());
+        return ++appended;
+    }
+
+    /**
+     * Returns the error that failed the log. Once a write or fsync of the
+     * log has failed, the log accepts no more syncs.
+     *
+     * @return the error, or null if the log has not failed
+     */
+    IOException failure() {
+        return failure;
+    }
+
+    /**
+     * Returns the sequence number of the last appended record.
+     *
+     * @return the last sequence number, 0 if nothing has been appended
+     */
+    synchronized long lastSequence() {
+        return appended;
+    }
+
+    /**
+     * Blocks until every record up to the sequence number is on disk.
+     *
+     * @param sequence the sequence number returned by append
+     * @throws java.io.IOException if writing the log failed, now or in an
+     *                             earlier batch
+     */
+    void sync(long sequence) throws IOException {
+        synchronized (this) {
+            while (true) {
+                if (failure != null) {
+                    throw new IOException("write-ahead log failed", failure);
+                } else if (durable >= sequence) {
+                    return;
+                } else if (!flushing) {
+                    flushing = true;
+                    break;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while waiting for the log");
+                }
+            }
+        }
+        lead();
+    }
+
+    /**
+     * Writes and forces one batch as the leader.
+     */
+    private void lead() throws IOException {
+        try {
+            if (commitDelayNanos > 0) {
+                LockSupport.parkNanos(commitDelayNanos);
+            }
+            ByteBuffer batch;
+            long upTo;
+            synchronized (this) {
+                batch = pending;
+                upTo = appended;
+                pending = spare;
+                pending.clear();
+            }
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+            synchronized (this) {
+                durable = upTo;
+                batch.clear();
+                spare = batch;
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                flushing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Empties the log once its records are covered by a snapshot. The caller
+     * must make sure no records are appended concurrently.
+     *
+     * @throws java.io.IOException if the file cannot be truncated
+     */
+    synchronized void truncate() throws IOException {
+        while (flushing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for the log");
+            }
+        }
+        pending.clear();
+        durable = appended;
+        channel.truncate(0);
+        channel.force(true);
+    }
+
+    /**
+     * Writes any pending records and closes the file.
+     *
+     * @throws java.io.IOException if the records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync(lastSequence());
+        } finally {
+            channel.close();
+        }
+    }
+}